@@ -0,0 +1,94 @@
+package com.ridesharing.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and exits with status 1 when any
+ * benchmark's score or allocation rate regressed by more than the threshold (default 10%).
+ * <pre>java -cp target/benchmarks.jar com.ridesharing.benchmark.BaselineComparator baseline/results.json results.json [0.10]</pre>
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <results.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline recorded yet; copy " + args[1] + " to " + args[0] + " to create one.");
+            return;
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW   %s %.3f %s%n", entry.getKey(), after.score(), after.unit());
+                continue;
+            }
+
+            double timeChange = change(before.score(), after.score());
+            double allocChange = change(before.allocated(), after.allocated());
+            boolean regressed = timeChange > threshold || allocChange > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-5s %s %.3f -> %.3f %s (%+.1f%%), %.0f -> %.0f B/op (%+.1f%%)%n",
+                    regressed ? "WORSE" : "OK", entry.getKey(),
+                    before.score(), after.score(), after.unit(), timeChange * 100,
+                    before.allocated(), after.allocated(), allocChange * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + Math.round(threshold * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // Every benchmark here reports time per operation, so a larger score is worse
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before;
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return scores;
+        }
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            scores.put(key.toString(), new Score(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.path("score").asDouble()));
+        }
+        return scores;
+    }
+
+    private record Score(double score, String unit, double allocated) {
+    }
+}
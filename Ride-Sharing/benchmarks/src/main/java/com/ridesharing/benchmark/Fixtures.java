@@ -0,0 +1,119 @@
+package com.ridesharing.benchmark;
+
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Detached entities shaped like production rows: real city names, 100-300 character notes, 1-3 seat bookings
+public final class Fixtures {
+
+    private static final String[] CITIES = {
+            "Kolkata", "Siliguri", "Durgapur", "Asansol", "Howrah", "Kharagpur", "Bardhaman", "Haldia",
+            "Darjeeling", "Jalpaiguri", "Malda", "Bolpur", "Digha", "Bhubaneswar", "Ranchi", "Patna"};
+
+    public static final String[] CAR_MODELS = {
+            "Maruti Swift", "Hyundai i20", "Honda City", "Hyundai Verna", "Toyota Innova Crysta",
+            "Toyota Fortuner", "Mahindra XUV700 SUV", "Tata Nexon", "Maruti Dzire Sedan", "Kia Seltos",
+            "Tata Tiago Hatchback", "Renault Kwid", null};
+
+    private static final String[] LOCALITIES = {
+            "Salt Lake Sector", "New Town Action Area", "Park Street", "Ballygunge Phari", "Garia Station",
+            "Behala Chowrasta", "Dum Dum Metro", "Esplanade Bus Stand", "City Centre", "Station Road",
+            "Bus Terminus", "Hill Cart Road", "College More", "Airport Gate", "Bazar Lane", "Stadium Road"};
+
+    private static final String[] COLORS = {"White", "Silver", "Grey", "Red", "Blue", "Black"};
+
+    private Fixtures() {
+    }
+
+    public static User user(long id, UserRole role) {
+        User user = new User("First" + id, "Lastname" + id, String.format("+9198%08d", id),
+                "user" + id + "@example.com", "$2a$10$abcdefghijklmnopqrstuv", role);
+        user.setId(id);
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+
+    public static List<Ride> rides(int count, long seed) {
+        Random random = new Random(seed);
+        List<Ride> rides = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rides.add(ride(i + 1, user(10_000 + random.nextInt(500), UserRole.DRIVER), random));
+        }
+        return rides;
+    }
+
+    public static List<Booking> bookings(int count, long seed) {
+        Random random = new Random(seed);
+        List<Ride> rides = rides(Math.max(1, count / 3), seed);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ride ride = rides.get(random.nextInt(rides.size()));
+            bookings.add(booking(i + 1, ride, user(50_000 + random.nextInt(5_000), UserRole.USER), random));
+        }
+        return bookings;
+    }
+
+    // Lower-cased "locality n, city" pick-up points: far more distinct than bare city names, like real search input
+    public static String[] placeNames(int count, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = (LOCALITIES[random.nextInt(LOCALITIES.length)] + " " + (1 + random.nextInt(40)) + ", "
+                    + CITIES[random.nextInt(CITIES.length)]).toLowerCase();
+        }
+        return names;
+    }
+
+    public static Ride ride(long id, User driver, Random random) {
+        int totalSeats = 3 + random.nextInt(5);
+        String model = CAR_MODELS[random.nextInt(CAR_MODELS.length - 1)];
+
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setDriver(driver);
+        ride.setSource(CITIES[random.nextInt(CITIES.length)]);
+        ride.setDestination(CITIES[random.nextInt(CITIES.length)]);
+        ride.setDepartureDate(LocalDateTime.of(2026, 11, 1, 6, 0).plusMinutes(random.nextInt(60 * 24 * 30)));
+        ride.setTotalSeats(totalSeats);
+        ride.setAvailableSeats(random.nextInt(totalSeats + 1));
+        ride.setPricePerSeat(BigDecimal.valueOf(150 + random.nextInt(1500), 0).setScale(2));
+        ride.setVehicleModel(model);
+        ride.setVehicleType("Sedan");
+        ride.setVehicleColor(COLORS[random.nextInt(COLORS.length)]);
+        ride.setVehicleNumber(String.format("WB%02dAB%04d", random.nextInt(100), random.nextInt(10_000)));
+        ride.setNotes("Leaving from the main gate, one small bag per passenger please. ".repeat(1 + random.nextInt(4)));
+        ride.setStatus(RideStatus.ACTIVE);
+        ride.setCreatedAt(LocalDateTime.of(2026, 10, 1, 9, 0));
+        ride.setUpdatedAt(LocalDateTime.of(2026, 10, 2, 9, 0));
+        return ride;
+    }
+
+    public static Booking booking(long id, Ride ride, User passenger, Random random) {
+        int seats = 1 + random.nextInt(3);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRide(ride);
+        booking.setPassenger(passenger);
+        booking.setSeatsBooked(seats);
+        booking.setTotalAmount(ride.getPricePerSeat().multiply(BigDecimal.valueOf(seats)));
+        booking.setPassengerName(passenger.getFirstName() + " " + passenger.getLastName());
+        booking.setPassengerPhone(passenger.getPhoneNumber());
+        booking.setPickupPoint("Near " + ride.getSource() + " railway station, gate " + (1 + random.nextInt(4)));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setBookingDate(LocalDateTime.of(2026, 10, 15, 18, 30));
+        booking.setUpdatedAt(LocalDateTime.of(2026, 10, 15, 18, 45));
+        return booking;
+    }
+}
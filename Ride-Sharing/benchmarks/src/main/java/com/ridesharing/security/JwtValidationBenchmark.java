@@ -0,0 +1,45 @@
+package com.ridesharing.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ridesharing.cache.CacheRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation as done by JwtAuthenticationFilter on every request: {@code cold} always verifies
+ * the HMAC signature and parses the claims, {@code cached} is a repeat presentation of the same token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+    private static final long ONE_DAY_MS = 86_400_000L;
+
+    private JwtTokenProvider coldProvider;
+    private JwtTokenProvider cachedProvider;
+    private String userToken;
+
+    @Setup
+    public void setUp() {
+        coldProvider = new JwtTokenProvider(SECRET, ONE_DAY_MS, 7 * ONE_DAY_MS, false, 10_000, new CacheRegistry());
+        cachedProvider = new JwtTokenProvider(SECRET, ONE_DAY_MS, 7 * ONE_DAY_MS, true, 10_000, new CacheRegistry());
+        userToken = coldProvider.generateToken("+919800012345", 12_345L, "USER");
+        cachedProvider.validateToken(userToken);
+    }
+
+    @Benchmark
+    public boolean cold() {
+        return coldProvider.validateToken(userToken);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return cachedProvider.validateToken(userToken);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ridesharing.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.ridesharing.benchmark.Fixtures;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.Ride;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the booking email model and rendering it with the same cached Thymeleaf setup the
+ * application uses (spring.thymeleaf.cache=true). Mail transport is not part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookingEmailBenchmark {
+
+    @Param({"booking-confirmed", "booking-cancelled", "booking-status-update"})
+    String templateName;
+
+    private EmailService emailService;
+    private Booking booking;
+    private BookingEmailModel model;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        // renderHtml only touches the template engine
+        emailService = new EmailService(null, templateEngine, null, null, null);
+        booking = Fixtures.bookings(1, 7).get(0);
+        model = newModel();
+    }
+
+    @Benchmark
+    public BookingEmailModel createModel() {
+        return newModel();
+    }
+
+    @Benchmark
+    public String renderPrebuiltModel() {
+        return emailService.renderHtml(templateName, model);
+    }
+
+    @Benchmark
+    public String createAndRender() {
+        return emailService.renderHtml(templateName, newModel());
+    }
+
+    private BookingEmailModel newModel() {
+        Ride ride = booking.getRide();
+        return BookingEmailModel.of(booking.getPassenger(), booking, ride, ride.getDriver(), "support@example.com")
+                .withStatus("CONFIRMED", "Your booking has been confirmed by the driver.", "#10B981");
+    }
+}
@@ -0,0 +1,50 @@
+package com.ridesharing.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ridesharing.benchmark.Fixtures;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.Ride;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion for one listing page. Page sizes match the search default (10), the
+ * largest page the search accepts (50) and a busy driver's full booking list (200).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResponseDtoBenchmark {
+
+    @Param({"10", "50", "200"})
+    int pageSize;
+
+    private List<Ride> rides;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        rides = Fixtures.rides(pageSize, 42);
+        bookings = Fixtures.bookings(pageSize, 42);
+    }
+
+    @Benchmark
+    public void rideResponsePage(Blackhole blackhole) {
+        for (Ride ride : rides) {
+            blackhole.consume(RideService.convertToResponseDto(ride));
+        }
+    }
+
+    @Benchmark
+    public void bookingResponsePage(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingService.convertToResponseDto(booking));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ridesharing.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ridesharing.benchmark.Fixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring match over 100k and 1M place names: {@code likeScan} is what MySQL does for
+ * {@code LOWER(source) LIKE '%q%'} (a leading wildcard cannot use a B-tree index, so every row is
+ * read and compared), {@code trigram} intersects posting lists and confirms the candidates. The
+ * end-to-end comparison against MySQL itself is RideSearchLikeBenchmarkTests in the main module.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TrigramSearchBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rides;
+
+    // Selective (one locality of one city), medium (one city) and broad (a common word)
+    @Param({"salt lake sector 12, kolkata", "siliguri", "road"})
+    private String query;
+
+    private String[] names;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = Fixtures.placeNames(rides, 42);
+        index = new TrigramIndex();
+        for (int i = 0; i < names.length; i++) {
+            index.add(i, names[i]);
+        }
+    }
+
+    @Benchmark
+    public int likeScan() {
+        int matches = 0;
+        for (String name : names) {
+            if (name.contains(query)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int trigram() {
+        int matches = 0;
+        for (int id : index.search(query)) {
+            if (names[id].contains(query)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
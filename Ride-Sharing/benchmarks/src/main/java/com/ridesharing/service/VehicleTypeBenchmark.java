@@ -0,0 +1,26 @@
+package com.ridesharing.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ridesharing.benchmark.Fixtures;
+
+import java.util.concurrent.TimeUnit;
+
+// Called once per posted ride, and once per occurrence of a recurring schedule
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class VehicleTypeBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public String determineVehicleType() {
+        // Cycles through matching and non-matching models, including null
+        String model = Fixtures.CAR_MODELS[next++ % Fixtures.CAR_MODELS.length];
+        return RideService.determineVehicleType(model);
+    }
+}
@@ -0,0 +1,99 @@
+// Finds the highest request rate the API sustains for ride search and booking.
+// Arrival-rate executors keep offering load even when responses slow down, so the result is the rate at
+// which the thresholds below start failing, not a number capped by the VU count.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e JWT_SECRET=<jwt.secret> -e RIDE_ID_FROM=<first seeded ride id> \
+//          -e SCENARIO=search loadtest/k6-search-and-book.js
+import http from 'k6/http';
+import crypto from 'k6/crypto';
+import encoding from 'k6/encoding';
+import exec from 'k6/execution';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const JWT_SECRET = __ENV.JWT_SECRET;
+const PASSENGERS = parseInt(__ENV.PASSENGERS || '2000');
+const RIDES = parseInt(__ENV.RIDES || '5000');
+const RIDE_ID_FROM = parseInt(__ENV.RIDE_ID_FROM || '1');
+// id of seeded passenger 1 minus one; only matters with app.security.stateless-principal=true
+const USER_ID_OFFSET = parseInt(__ENV.USER_ID_OFFSET || '0');
+const START_RATE = parseInt(__ENV.START_RATE || '50');
+const MAX_RATE = parseInt(__ENV.MAX_RATE || '3000');
+const STEP_SECONDS = parseInt(__ENV.STEP_SECONDS || '30');
+const SCENARIO = __ENV.SCENARIO || 'search';
+
+// Ramp the offered rate in steps so each level runs long enough to settle
+function steps() {
+  const stages = [];
+  for (let rate = START_RATE; rate <= MAX_RATE; rate = Math.round(rate * 1.5)) {
+    stages.push({ target: rate, duration: '10s' });
+    stages.push({ target: rate, duration: `${STEP_SECONDS}s` });
+  }
+  return stages;
+}
+
+const scenarios = {
+  search: { executor: 'ramping-arrival-rate', exec: 'search', startRate: START_RATE, timeUnit: '1s',
+            preAllocatedVUs: 200, maxVUs: 5000, stages: steps() },
+  book: { executor: 'ramping-arrival-rate', exec: 'book', startRate: START_RATE, timeUnit: '1s',
+          preAllocatedVUs: 200, maxVUs: 5000, stages: steps() },
+};
+
+export const options = {
+  scenarios: { [SCENARIO]: scenarios[SCENARIO] },
+  // The run aborts at the first sustained breach; the last fully passing stage is the max sustainable RPS
+  thresholds: {
+    http_req_failed: [{ threshold: 'rate<0.01', abortOnFail: true, delayAbortEval: '20s' }],
+    http_req_duration: [{ threshold: 'p(95)<500', abortOnFail: true, delayAbortEval: '20s' }],
+    dropped_iterations: [{ threshold: 'count<100', abortOnFail: true }],
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// Same claims JwtTokenProvider.generateToken writes; HS256 over the shared secret
+function token(phone, userId) {
+  const now = Math.floor(Date.now() / 1000);
+  const header = encoding.b64encode(JSON.stringify({ alg: 'HS256', typ: 'JWT' }), 'rawurl');
+  const payload = encoding.b64encode(JSON.stringify({
+    sub: phone, userId: userId, role: 'USER', type: 'USER', iat: now, exp: now + 3600,
+  }), 'rawurl');
+  const signature = crypto.hmac('sha256', JWT_SECRET, `${header}.${payload}`, 'base64rawurl');
+  return `${header}.${payload}.${signature}`;
+}
+
+function headers(phone, n) {
+  return { Authorization: `Bearer ${token(phone, USER_ID_OFFSET + n)}`, 'Content-Type': 'application/json' };
+}
+
+function passenger() {
+  const n = 1 + Math.floor(Math.random() * PASSENGERS);
+  const phone = `+9170000${String(n).padStart(5, '0')}`;
+  return { phone, auth: { headers: headers(phone, n) } };
+}
+
+export function setup() {
+  if (!JWT_SECRET) {
+    throw new Error('JWT_SECRET must match jwt.secret of the server under test');
+  }
+}
+
+export function search() {
+  const { auth } = passenger();
+  const res = http.post(`${BASE_URL}/api/rides/search`, JSON.stringify({
+    source: 'Kolkata', destination: 'Siliguri', page: 0, size: 10,
+  }), Object.assign({ tags: { name: 'search' } }, auth));
+  check(res, { 'search 200': (r) => r.status === 200 });
+}
+
+// Each iteration books a different (ride, passenger) pair, spread round-robin over the rides, so with the
+// seeded capacity every booking should succeed and any 400 is counted as a failure
+export function book() {
+  const i = exec.scenario.iterationInTest;
+  const rideId = RIDE_ID_FROM + (i % RIDES);
+  const n = 1 + (Math.floor(i / RIDES) % PASSENGERS);
+  const phone = `+9170000${String(n).padStart(5, '0')}`;
+  const res = http.post(`${BASE_URL}/api/bookings`, JSON.stringify({
+    rideId: rideId, seatsBooked: 1, passengerName: 'Load Passenger', passengerPhone: phone,
+  }), { tags: { name: 'book' }, headers: headers(phone, n) });
+  check(res, { 'book 200': (r) => r.status === 200 });
+}
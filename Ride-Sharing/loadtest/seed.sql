@@ -0,0 +1,28 @@
+-- Load-test data: 1 driver, 2000 passengers (+9170000xxxxx) and 5000 rides Kolkata -> Siliguri, 100 seats each.
+-- 500,000 seats outlast the ~350,000 bookings a full default ramp (50 -> 2915 rps) offers, so the book scenario
+-- never reaches the sold-out path; raise both numbers together with MAX_RATE.
+-- Run against a scratch database BEFORE starting the app (the app caches id blocks from the *_seq tables).
+--   mysql -u <user> -p Ride_Sharing < loadtest/seed.sql
+
+SET SESSION cte_max_recursion_depth = 10000;
+
+INSERT INTO users (first_name, last_name, phone_number, email, password, role, is_verified, is_active, created_at)
+VALUES ('Load', 'Driver', '+917000000000', 'load.driver@example.test', 'not-a-login-password', 'DRIVER', 1, 1, NOW(6));
+
+INSERT INTO users (first_name, last_name, phone_number, email, password, role, is_verified, is_active, created_at)
+WITH RECURSIVE n AS (SELECT 1 AS i UNION ALL SELECT i + 1 FROM n WHERE i < 2000)
+SELECT 'Load', CONCAT('Passenger', i), CONCAT('+9170000', LPAD(i, 5, '0')), CONCAT('load.p', i, '@example.test'),
+       'not-a-login-password', 'USER', 1, 1, NOW(6)
+FROM n;
+
+INSERT INTO rides (driver_id, source, destination, departure_date, available_seats, total_seats, price_per_seat,
+                   vehicle_type, vehicle_model, vehicle_number, status, created_at)
+WITH RECURSIVE n AS (SELECT 1 AS i UNION ALL SELECT i + 1 FROM n WHERE i < 5000)
+SELECT (SELECT id FROM users WHERE phone_number = '+917000000000'), 'Kolkata', 'Siliguri',
+       DATE_ADD(NOW(6), INTERVAL 2 + i MOD 20 DAY), 100, 100, 900.00, 'Sedan', 'Honda City',
+       CONCAT('WB00LT', LPAD(i, 4, '0')), 'ACTIVE', NOW(6)
+FROM n;
+
+-- Keep Hibernate's pooled id blocks clear of the rows inserted above
+UPDATE users_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM users);
+UPDATE rides_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM rides);
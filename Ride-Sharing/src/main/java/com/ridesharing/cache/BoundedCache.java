@@ -0,0 +1,154 @@
+package com.ridesharing.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache with per-entry expiry and hit/miss/eviction counters.
+ * Loads run outside the lock; a load that overlaps an invalidation is not stored, so a
+ * write can never be hidden behind a result computed from the state before it.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlMillis;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedCache(String name, int maximumSize, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache " + name + " needs a positive maximum size");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt() <= now) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration;
+        synchronized (lock) {
+            loadGeneration = generation;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            synchronized (lock) {
+                if (generation == loadGeneration) {
+                    store(key, loaded, expiresAt);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    // Stores with an explicit expiry, capped at the cache TTL
+    public void put(K key, V value, long expiresAtMillis) {
+        long expiresAt = Math.min(expiresAtMillis, System.currentTimeMillis() + ttlMillis);
+        synchronized (lock) {
+            store(key, value, expiresAt);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (lock) {
+            generation++;
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public int invalidateIf(Predicate<? super K> predicate) {
+        int removed = 0;
+        synchronized (lock) {
+            generation++;
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next().getKey())) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public void invalidateAll() {
+        synchronized (lock) {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, size(), maximumSize, hits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private void store(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > maximumSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
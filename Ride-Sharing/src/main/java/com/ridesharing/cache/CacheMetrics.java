@@ -0,0 +1,48 @@
+package com.ridesharing.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Publishes every registered cache's stats; caches are created by their owners' constructors, so bind once the app is up
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics {
+
+    private final CacheRegistry cacheRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bind() {
+        for (BoundedCache<?, ?> cache : cacheRegistry.getCaches()) {
+            Tags tags = Tags.of("cache", cache.getName());
+
+            Gauge.builder("app.cache.size", cache, BoundedCache::size)
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("app.cache.max.size", cache, c -> c.stats().maximumSize())
+                    .tags(tags)
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.cache.gets", cache, c -> c.stats().hits())
+                    .tags(tags.and("result", "hit"))
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.cache.gets", cache, c -> c.stats().misses())
+                    .tags(tags.and("result", "miss"))
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.cache.removals", cache, c -> c.stats().evictions())
+                    .tags(tags.and("cause", "size"))
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.cache.removals", cache, c -> c.stats().expirations())
+                    .tags(tags.and("cause", "expired"))
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.cache.removals", cache, c -> c.stats().invalidations())
+                    .tags(tags.and("cause", "invalidated"))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ridesharing.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Central place that creates the application's in-process caches so their stats can be reported together
+@Component
+public class CacheRegistry {
+
+    private final Map<String, BoundedCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public <K, V> BoundedCache<K, V> create(String name, int maximumSize, Duration ttl) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maximumSize, ttl);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Cache already registered: " + name);
+        }
+        return cache;
+    }
+
+    public Collection<BoundedCache<?, ?>> getCaches() {
+        return caches.values();
+    }
+
+    public List<CacheStats> stats() {
+        return caches.values().stream()
+                .map(BoundedCache::stats)
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,10 @@
+package com.ridesharing.cache;
+
+public record CacheStats(String name, int size, int maximumSize, long hits, long misses,
+                         long evictions, long expirations, long invalidations) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ridesharing.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Local mail sink for offline development and tests: messages are kept in memory and logged
+ * instead of going to SMTP. Enabled with app.email.fake-sink=true, which also stops Spring Boot
+ * from auto-configuring the real JavaMailSender.
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.fake-sink", havingValue = "true")
+@Slf4j
+public class RecordingMailSender extends JavaMailSenderImpl {
+
+    private static final int MAX_RECORDED = 200;
+
+    private final Deque<MimeMessage> sent = new ConcurrentLinkedDeque<>();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        for (MimeMessage message : mimeMessages) {
+            sent.addLast(message);
+            while (sent.size() > MAX_RECORDED) {
+                sent.pollFirst();
+            }
+            log.info("Fake mail sink captured '{}' to {}", subject(message), recipients(message));
+        }
+    }
+
+    public List<MimeMessage> getSentMessages() {
+        return new ArrayList<>(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+
+    private static String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (MessagingException e) {
+            return "?";
+        }
+    }
+
+    private static String recipients(MimeMessage message) {
+        try {
+            return message.getAllRecipients() != null ? Arrays.toString(message.getAllRecipients()) : "[]";
+        } catch (MessagingException e) {
+            return "?";
+        }
+    }
+}
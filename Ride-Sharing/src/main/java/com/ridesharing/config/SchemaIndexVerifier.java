@@ -0,0 +1,91 @@
+package com.ridesharing.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that the indexes added by the db/migration scripts exist, so a database that
+ * skipped a migration shows up in the log instead of as a slow query later.
+ */
+@Component
+@Slf4j
+public class SchemaIndexVerifier {
+
+    // table -> index names, kept in sync with V2__hot_query_indexes.sql and V2_1__email_outbox.sql
+    static final Map<String, List<String>> EXPECTED_INDEXES = Map.of(
+            "rides", List.of("idx_rides_status_departure", "idx_rides_driver_departure"),
+            "bookings", List.of("idx_bookings_passenger_date", "idx_bookings_ride_status"),
+            "otp_verification", List.of("idx_otp_phone_used", "idx_otp_phone_created", "idx_otp_expires_at"),
+            "users", List.of("idx_users_is_active"),
+            "email_outbox", List.of("idx_email_outbox_status_next_attempt"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean failOnMissing;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbcTemplate,
+                               @Value("${app.schema.verify-indexes.enabled:true}") boolean enabled,
+                               @Value("${app.schema.verify-indexes.fail-on-missing:false}") boolean failOnMissing) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> missing;
+        try {
+            missing = findMissingIndexes();
+        } catch (Exception e) {
+            log.warn("Could not verify schema indexes: {}", e.getMessage());
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            log.info("Schema index check passed ({} tables)", EXPECTED_INDEXES.size());
+            return;
+        }
+
+        String message = "Missing database indexes: " + String.join(", ", missing)
+                + ". Run the Flyway migrations in db/migration.";
+        if (failOnMissing) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    List<String> findMissingIndexes() {
+        Set<String> present = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT DISTINCT LOWER(table_name), LOWER(index_name) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE()",
+                rs -> {
+                    present.add(rs.getString(1) + "." + rs.getString(2));
+                });
+
+        List<String> missing = new ArrayList<>();
+        EXPECTED_INDEXES.forEach((table, indexes) -> {
+            for (String index : indexes) {
+                if (!present.contains(table + "." + index)) {
+                    missing.add(table + "." + index);
+                }
+            }
+        });
+        missing.sort(null);
+        return missing;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ridesharing.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -13,6 +14,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 import com.ridesharing.security.JwtAuthenticationFilter;
@@ -24,11 +26,14 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final int managementPort;
 
     public SecurityConfig(@Lazy JwtAuthenticationFilter jwtAuthenticationFilter,
-                         CorsConfigurationSource corsConfigurationSource) {
+                         CorsConfigurationSource corsConfigurationSource,
+                         @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -44,6 +49,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/driver/verify/**").hasRole("ADMIN")
                 .requestMatchers("/api/test").permitAll()
                 .requestMatchers("/api/check-user").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // The scraper reads metrics on the internal management port; on the public port they need ADMIN
+                .requestMatchers(managementEndpoints()).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -51,6 +60,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher managementEndpoints() {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && request.getRequestURI().startsWith("/actuator/");
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
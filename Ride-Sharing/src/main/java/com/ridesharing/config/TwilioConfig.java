@@ -1,5 +1,6 @@
 package com.ridesharing.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,6 +9,7 @@ import com.twilio.Twilio;
 
 @Configuration
 @ConfigurationProperties(prefix = "twilio")
+@Slf4j
 public class TwilioConfig {
 
     private String accountSid;
@@ -19,19 +21,18 @@ public class TwilioConfig {
 
     @Bean
     public String twilioInit() {
-        System.out.println("Initializing Twilio with AccountSid: " + 
-                          (accountSid != null ? accountSid.substring(0, 4) + "***" : "null"));
-        System.out.println("AuthToken present: " + (authToken != null && !authToken.isEmpty()));
-        System.out.println("FromNumber: " + fromNumber);
+        log.info("Initializing Twilio with AccountSid: {}",
+                (accountSid != null ? accountSid.substring(0, 4) + "***" : "null"));
+        log.info("AuthToken present: {}", (authToken != null && !authToken.isEmpty()));
+        log.info("FromNumber: {}", fromNumber);
         
         if (accountSid != null && authToken != null && !accountSid.isEmpty() && !authToken.isEmpty()) {
             Twilio.init(accountSid, authToken);
-            System.out.println("Twilio initialized successfully!");
+            log.info("Twilio initialized successfully!");
             return "Twilio initialized successfully";
         } else {
-            System.err.println("Twilio not initialized - missing credentials");
-            System.err.println("AccountSid: " + accountSid);
-            System.err.println("AuthToken: " + (authToken != null ? "present" : "null"));
+            log.warn("Twilio not initialized - missing credentials (AccountSid: {}, AuthToken: {})",
+                    (accountSid != null ? "present" : "null"), (authToken != null ? "present" : "null"));
             return "Twilio not initialized - missing credentials";
         }
     }
@@ -1,18 +1,23 @@
 package com.ridesharing.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import com.ridesharing.cache.CacheRegistry;
 import com.ridesharing.dto.AdminLoginDto;
 import com.ridesharing.dto.ApiResponse;
-import com.ridesharing.security.JwtTokenProvider;
 import com.ridesharing.service.AdminService;
 import com.ridesharing.service.DriverDetailService;
+import com.ridesharing.service.SmsDispatcher;
+import com.ridesharing.service.SmtpTransportPool;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -20,7 +25,9 @@ public class AdminController {
 
     private final AdminService adminService;
     private final DriverDetailService driverDetailService;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final CacheRegistry cacheRegistry;
+    private final SmtpTransportPool smtpTransportPool;
+    private final SmsDispatcher smsDispatcher;
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse> adminLogin(@Valid @RequestBody AdminLoginDto loginDto) {
@@ -34,10 +41,9 @@ public class AdminController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse> getAdminProfile(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse> getAdminProfile(Authentication authentication) {
         try {
-            String token = extractTokenFromRequest(request);
-            String email = jwtTokenProvider.getSubjectFromJWT(token);
+            String email = authentication.getName();
             
             ApiResponse response = adminService.getAdminProfile(email);
             return ResponseEntity.ok(response);
@@ -69,11 +75,46 @@ public class AdminController {
         }
     }
 
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        throw new RuntimeException("No valid JWT token found");
+    @GetMapping("/cache-stats")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        return ResponseEntity.ok(new ApiResponse(
+                "SUCCESS",
+                "Cache statistics retrieved successfully",
+                cacheRegistry.stats()
+        ));
+    }
+
+    @GetMapping("/mail-stats")
+    public ResponseEntity<ApiResponse> getMailStats() {
+        return ResponseEntity.ok(new ApiResponse(
+                "SUCCESS",
+                "Mail transport statistics retrieved successfully",
+                smtpTransportPool.stats()
+        ));
+    }
+
+    @GetMapping("/sms-deliveries/{deliveryId}")
+    public ResponseEntity<ApiResponse> getSmsDelivery(@PathVariable String deliveryId) {
+        return smsDeliveryResponse(smsDispatcher.status(deliveryId));
+    }
+
+    // Latest delivery to a phone number, for support requests that only have the number
+    @GetMapping("/sms-deliveries")
+    public ResponseEntity<ApiResponse> getLatestSmsDelivery(@RequestParam String phoneNumber) {
+        return smsDeliveryResponse(smsDispatcher.latestForPhone(phoneNumber));
+    }
+
+    private ResponseEntity<ApiResponse> smsDeliveryResponse(Optional<SmsDispatcher.SmsDelivery> delivery) {
+        return delivery
+                .map(found -> ResponseEntity.ok(new ApiResponse(
+                        "SUCCESS",
+                        "SMS delivery status retrieved successfully",
+                        found
+                )))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(
+                        "ERROR",
+                        "SMS delivery not found or expired",
+                        null
+                )));
     }
-}
\ No newline at end of file
+}
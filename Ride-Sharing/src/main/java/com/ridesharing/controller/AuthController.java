@@ -1,29 +1,43 @@
 package com.ridesharing.controller;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.ridesharing.dto.LoginDto;
 import com.ridesharing.dto.OtpVerificationDto;
 import com.ridesharing.dto.UserRegistrationDto;
+import com.ridesharing.security.AuthRateLimiter;
+import com.ridesharing.security.AuthRateLimiter.Action;
 import com.ridesharing.service.AuthService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/auth")
+@Slf4j
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter rateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthRateLimiter rateLimiter) {
         this.authService = authService;
+        this.rateLimiter = rateLimiter;
     }
     
     // Test endpoint for connectivity
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationDto registrationDto) {
+    public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationDto registrationDto,
+                                          HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire(Action.OTP_SEND, registrationDto.getPhoneNumber(), request.getRemoteAddr());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             return ResponseEntity.ok(authService.registerUser(registrationDto));
         } catch (Exception e) {
@@ -32,18 +46,27 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginDto loginDto) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginDto loginDto, HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire(Action.CREDENTIAL_ATTEMPT, loginDto.getPhoneNumber(), request.getRemoteAddr());
+        if (wait > 0) {
+            log.warn("Login rate limited for phone: {}", loginDto.getPhoneNumber());
+            return tooManyRequests(wait);
+        }
         try {
-            System.out.println("Login attempt for phone: " + loginDto.getPhoneNumber());
+            log.info("Login attempt for phone: {}", loginDto.getPhoneNumber());
             return ResponseEntity.ok(authService.authenticateUser(loginDto));
         } catch (Exception e) {
-            System.out.println("Login failed for phone: " + loginDto.getPhoneNumber() + ", Error: " + e.getMessage());
+            log.warn("Login failed for phone: {}, Error: {}", loginDto.getPhoneNumber(), e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOtp(@Valid @RequestBody OtpVerificationDto otpDto) {
+    public ResponseEntity<?> verifyOtp(@Valid @RequestBody OtpVerificationDto otpDto, HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire(Action.CREDENTIAL_ATTEMPT, otpDto.getPhoneNumber(), request.getRemoteAddr());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             return ResponseEntity.ok(authService.verifyOtp(otpDto));
         } catch (Exception e) {
@@ -52,7 +75,11 @@ public class AuthController {
     }
 
     @PostMapping("/resend-otp")
-    public ResponseEntity<?> resendOtp(@RequestParam String phoneNumber) {
+    public ResponseEntity<?> resendOtp(@RequestParam String phoneNumber, HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire(Action.OTP_SEND, phoneNumber, request.getRemoteAddr());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             return ResponseEntity.ok(authService.resendOtp(phoneNumber));
         } catch (Exception e) {
@@ -73,4 +100,11 @@ public class AuthController {
     public ResponseEntity<?> testConnection() {
         return ResponseEntity.ok("Backend connection successful!");
     }
+
+    private ResponseEntity<?> tooManyRequests(long waitMillis) {
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body("Too many requests, please try again later");
+    }
 }
\ No newline at end of file
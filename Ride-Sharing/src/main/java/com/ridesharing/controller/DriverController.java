@@ -1,13 +1,13 @@
 package com.ridesharing.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.ridesharing.dto.ApiResponse;
 import com.ridesharing.dto.DriverDetailDto;
 import com.ridesharing.entity.DriverDetail;
 import com.ridesharing.service.DriverDetailService;
-import com.ridesharing.security.JwtTokenProvider;
 
 import jakarta.validation.Valid;
 
@@ -16,19 +16,17 @@ import jakarta.validation.Valid;
 public class DriverController {
 
     private final DriverDetailService driverDetailService;
-    private final JwtTokenProvider jwtTokenProvider;
 
-    public DriverController(DriverDetailService driverDetailService, JwtTokenProvider jwtTokenProvider) {
+    public DriverController(DriverDetailService driverDetailService) {
         this.driverDetailService = driverDetailService;
-        this.jwtTokenProvider = jwtTokenProvider;
     }
 
     @PostMapping("/details")
     public ResponseEntity<ApiResponse> addDriverDetails(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @Valid @RequestBody DriverDetailDto driverDetailDto) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             DriverDetail driverDetail = driverDetailService.addDriverDetails(phoneNumber, driverDetailDto);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -53,10 +51,10 @@ public class DriverController {
 
     @PutMapping("/details")
     public ResponseEntity<ApiResponse> updateDriverDetails(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @Valid @RequestBody DriverDetailDto driverDetailDto) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             DriverDetail driverDetail = driverDetailService.updateDriverDetails(phoneNumber, driverDetailDto);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -81,9 +79,9 @@ public class DriverController {
 
     @GetMapping("/details")
     public ResponseEntity<ApiResponse> getDriverDetails(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             DriverDetail driverDetail = driverDetailService.getDriverDetails(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -108,9 +106,9 @@ public class DriverController {
 
     @DeleteMapping("/details")
     public ResponseEntity<ApiResponse> deleteDriverDetails(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             driverDetailService.deleteDriverDetails(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -135,9 +133,9 @@ public class DriverController {
 
     @GetMapping("/details/check")
     public ResponseEntity<ApiResponse> checkDriverDetails(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             boolean hasDetails = driverDetailService.hasDriverDetails(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -2,12 +2,12 @@ package com.ridesharing.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.ridesharing.dto.ApiResponse;
 import com.ridesharing.dto.BookingDto;
 import com.ridesharing.dto.BookingResponseDto;
-import com.ridesharing.security.JwtTokenProvider;
 import com.ridesharing.service.BookingService;
 
 import jakarta.validation.Valid;
@@ -19,14 +19,13 @@ import java.util.List;
 public class PassengerController {
 
     private final BookingService bookingService;
-    private final JwtTokenProvider jwtTokenProvider;
 
     @PostMapping
     public ResponseEntity<ApiResponse> bookRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @Valid @RequestBody BookingDto bookingDto) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             BookingResponseDto booking = bookingService.bookRide(phoneNumber, bookingDto);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -51,9 +50,9 @@ public class PassengerController {
 
     @GetMapping("/my-bookings")
     public ResponseEntity<ApiResponse> getMyBookings(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<BookingResponseDto> bookings = bookingService.getPassengerBookings(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -72,9 +71,9 @@ public class PassengerController {
 
     @GetMapping("/my-bookings/upcoming")
     public ResponseEntity<ApiResponse> getMyUpcomingBookings(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<BookingResponseDto> bookings = bookingService.getUpcomingBookings(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -93,10 +92,10 @@ public class PassengerController {
 
     @PutMapping("/{bookingId}/cancel")
     public ResponseEntity<ApiResponse> cancelBooking(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long bookingId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             BookingResponseDto booking = bookingService.cancelBooking(phoneNumber, bookingId);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -148,9 +147,9 @@ public class PassengerController {
     // Driver can also view bookings for their rides
     @GetMapping("/driver-bookings")
     public ResponseEntity<ApiResponse> getDriverBookings(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<BookingResponseDto> bookings = bookingService.getDriverBookings(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
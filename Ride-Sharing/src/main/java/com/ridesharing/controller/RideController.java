@@ -1,17 +1,19 @@
 package com.ridesharing.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.ridesharing.dto.ApiResponse;
 import com.ridesharing.dto.BookingResponseDto;
+import com.ridesharing.dto.RecurringRidePostDto;
+import com.ridesharing.dto.RecurringRideSummaryDto;
+import com.ridesharing.dto.RideCancellationResultDto;
 import com.ridesharing.dto.RidePostDto;
 import com.ridesharing.dto.RideResponseDto;
 import com.ridesharing.dto.RideSearchDto;
 import com.ridesharing.entity.RideStatus;
-import com.ridesharing.security.JwtTokenProvider;
 import com.ridesharing.service.BookingService;
 import com.ridesharing.service.RideService;
 
@@ -25,16 +27,15 @@ public class RideController {
 
     private final RideService rideService;
     private final BookingService bookingService;
-    private final JwtTokenProvider jwtTokenProvider;
 
     // Driver endpoints for posting and managing rides
 
     @PostMapping
     public ResponseEntity<ApiResponse> postRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @Valid @RequestBody RidePostDto ridePostDto) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             RideResponseDto ride = rideService.postRide(phoneNumber, ridePostDto);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -57,11 +58,39 @@ public class RideController {
         }
     }
 
+    @PostMapping("/recurring")
+    public ResponseEntity<ApiResponse> postRecurringRides(
+            Authentication authentication,
+            @Valid @RequestBody RecurringRidePostDto recurringRidePostDto) {
+        try {
+            String phoneNumber = authentication.getName();
+            RecurringRideSummaryDto summary = rideService.postRecurringRides(phoneNumber, recurringRidePostDto);
+            
+            return ResponseEntity.ok(new ApiResponse(
+                "SUCCESS",
+                summary.getRidesPosted() + " rides posted successfully",
+                summary
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(
+                "ERROR",
+                e.getMessage(),
+                null
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new ApiResponse(
+                "ERROR",
+                "An error occurred while posting the rides",
+                null
+            ));
+        }
+    }
+
     @GetMapping("/my-rides")
     public ResponseEntity<ApiResponse> getMyRides(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<RideResponseDto> rides = rideService.getDriverRides(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -86,9 +115,9 @@ public class RideController {
 
     @GetMapping("/my-rides/upcoming")
     public ResponseEntity<ApiResponse> getMyUpcomingRides(
-            @RequestHeader("Authorization") String token) {
+            Authentication authentication) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<RideResponseDto> rides = rideService.getUpcomingDriverRides(phoneNumber);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -107,11 +136,11 @@ public class RideController {
 
     @PutMapping("/{rideId}/status")
     public ResponseEntity<ApiResponse> updateRideStatus(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId,
             @RequestParam RideStatus status) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             RideResponseDto ride = rideService.updateRideStatus(phoneNumber, rideId, status);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -136,10 +165,10 @@ public class RideController {
 
     @DeleteMapping("/{rideId}")
     public ResponseEntity<ApiResponse> deleteRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             rideService.deleteRide(phoneNumber, rideId);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -164,10 +193,10 @@ public class RideController {
 
     @GetMapping("/{rideId}/bookings")
     public ResponseEntity<ApiResponse> getRideBookings(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             List<BookingResponseDto> bookings = bookingService.getRideBookings(phoneNumber, rideId);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -195,13 +224,22 @@ public class RideController {
     @PostMapping("/search")
     public ResponseEntity<ApiResponse> searchRides(@Valid @RequestBody RideSearchDto searchDto) {
         try {
-            Page<RideResponseDto> rides = rideService.searchRides(searchDto);
+            // Cursor mode returns a slice with nextCursor instead of a counted page
+            Object rides = Boolean.TRUE.equals(searchDto.getCursorMode())
+                    ? rideService.searchRidesByCursor(searchDto)
+                    : rideService.searchRides(searchDto);
             
             return ResponseEntity.ok(new ApiResponse(
                 "SUCCESS",
                 "Rides found successfully",
                 rides
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(
+                "ERROR",
+                e.getMessage(),
+                null
+            ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new ApiResponse(
                 "ERROR",
@@ -214,16 +252,16 @@ public class RideController {
     // Enhanced ride management APIs
     @PutMapping("/{rideId}/cancel")
     public ResponseEntity<ApiResponse> cancelRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
-            RideResponseDto ride = rideService.updateRideStatus(phoneNumber, rideId, RideStatus.CANCELLED);
+            String phoneNumber = authentication.getName();
+            RideCancellationResultDto result = rideService.cancelRide(phoneNumber, rideId);
             
             return ResponseEntity.ok(new ApiResponse(
                 "SUCCESS",
                 "Ride cancelled successfully",
-                ride
+                result
             ));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new ApiResponse(
@@ -236,10 +274,10 @@ public class RideController {
 
     @PutMapping("/{rideId}/complete")
     public ResponseEntity<ApiResponse> completeRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             RideResponseDto ride = rideService.updateRideStatus(phoneNumber, rideId, RideStatus.COMPLETED);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -258,10 +296,10 @@ public class RideController {
 
     @PutMapping("/{rideId}/activate")
     public ResponseEntity<ApiResponse> activateRide(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             RideResponseDto ride = rideService.updateRideStatus(phoneNumber, rideId, RideStatus.ACTIVE);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -281,11 +319,11 @@ public class RideController {
     // Booking management APIs for drivers
     @PutMapping("/{rideId}/bookings/{bookingId}/confirm")
     public ResponseEntity<ApiResponse> confirmBooking(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId,
             @PathVariable Long bookingId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             BookingResponseDto booking = bookingService.confirmBookingByDriver(phoneNumber, rideId, bookingId);
             
             return ResponseEntity.ok(new ApiResponse(
@@ -304,11 +342,11 @@ public class RideController {
 
     @PutMapping("/{rideId}/bookings/{bookingId}/cancel")
     public ResponseEntity<ApiResponse> cancelBookingByDriver(
-            @RequestHeader("Authorization") String token,
+            Authentication authentication,
             @PathVariable Long rideId,
             @PathVariable Long bookingId) {
         try {
-            String phoneNumber = jwtTokenProvider.getUsernameFromToken(token.substring(7));
+            String phoneNumber = authentication.getName();
             BookingResponseDto booking = bookingService.cancelBookingByDriver(phoneNumber, rideId, bookingId);
             
             return ResponseEntity.ok(new ApiResponse(
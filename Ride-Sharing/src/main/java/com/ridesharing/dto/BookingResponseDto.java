@@ -1,11 +1,15 @@
 package com.ridesharing.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import com.ridesharing.entity.BookingStatus;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Field order is the constructor expression order used in BookingRepository
 public class BookingResponseDto {
 
     private Long id;
@@ -0,0 +1,50 @@
+package com.ridesharing.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+// A commute schedule, e.g. MONDAY..FRIDAY at 08:30 for 4 weeks starting on startDate
+@Data
+public class RecurringRidePostDto {
+
+    @NotBlank(message = "Source is required")
+    @Size(max = 100, message = "Source must not exceed 100 characters")
+    private String source;
+
+    @NotBlank(message = "Destination is required")
+    @Size(max = 100, message = "Destination must not exceed 100 characters")
+    private String destination;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date must not be in the past")
+    private LocalDate startDate;
+
+    @NotNull(message = "Departure time is required")
+    private LocalTime departureTime;
+
+    @NotEmpty(message = "At least one day of the week is required")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Number of weeks is required")
+    @Min(value = 1, message = "Number of weeks must be at least 1")
+    @Max(value = 8, message = "Number of weeks cannot exceed 8")
+    private Integer weeks;
+
+    @NotNull(message = "Available seats is required")
+    @Min(value = 1, message = "Available seats must be at least 1")
+    @Max(value = 8, message = "Available seats cannot exceed 8")
+    private Integer availableSeats;
+
+    @NotNull(message = "Price per seat is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price per seat must be greater than 0")
+    @DecimalMax(value = "10000.0", message = "Price per seat cannot exceed 10000")
+    private BigDecimal pricePerSeat;
+
+    @Size(max = 500, message = "Notes must not exceed 500 characters")
+    private String notes;
+}
@@ -0,0 +1,21 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRideSummaryDto {
+
+    private Integer ridesPosted;
+    // Occurrences whose departure had already passed when the schedule was posted
+    private Integer occurrencesSkipped;
+    private LocalDateTime firstDeparture;
+    private LocalDateTime lastDeparture;
+    private List<Long> rideIds;
+}
@@ -0,0 +1,16 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideCancellationResultDto {
+
+    private RideResponseDto ride;
+    private Integer cancelledBookings;
+    private Integer releasedSeats;
+    private Integer notificationsQueued;
+}
@@ -1,6 +1,7 @@
 package com.ridesharing.dto;
 
 import lombok.Data;
+import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
@@ -15,10 +16,21 @@ public class RideSearchDto {
     private String vehicleType;
     
     // For pagination
+    @NotNull(message = "Page is required")
+    @Min(value = 0, message = "Page must not be negative")
     private Integer page = 0;
+
+    @NotNull(message = "Size is required")
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size cannot exceed 100")
     private Integer size = 10;
     
     // For sorting
     private String sortBy = "departureDate";
     private String sortDirection = "ASC";
+
+    // Keyset pagination: with cursorMode set, results are ordered by departure date and id,
+    // page/sort are ignored and the nextCursor of the previous response fetches the following page
+    private Boolean cursorMode = false;
+    private String cursor;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideSearchSliceDto {
+
+    private List<RideResponseDto> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;
+}
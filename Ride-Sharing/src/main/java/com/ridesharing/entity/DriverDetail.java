@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class DriverDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "driver_details_seq")
+    @SequenceGenerator(name = "driver_details_seq", sequenceName = "driver_details_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
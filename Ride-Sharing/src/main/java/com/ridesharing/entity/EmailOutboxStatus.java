@@ -0,0 +1,8 @@
+package com.ridesharing.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,    // Waiting for the dispatcher (also used for retries)
+    SENDING,    // Claimed by a dispatcher; reclaimed if its lease runs out
+    SENT,
+    FAILED      // Gave up after the maximum number of attempts
+}
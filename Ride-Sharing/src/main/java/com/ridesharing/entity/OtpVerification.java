@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class OtpVerification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "otp_verification_seq")
+    @SequenceGenerator(name = "otp_verification_seq", sequenceName = "otp_verification_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 20)
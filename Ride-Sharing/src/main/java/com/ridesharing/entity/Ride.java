@@ -16,7 +16,8 @@ import java.util.List;
 public class Ride {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rides_seq")
+    @SequenceGenerator(name = "rides_seq", sequenceName = "rides_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
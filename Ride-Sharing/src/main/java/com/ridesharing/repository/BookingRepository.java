@@ -1,18 +1,50 @@
 package com.ridesharing.repository;
 
+import com.ridesharing.dto.BookingResponseDto;
 import com.ridesharing.entity.Booking;
 import com.ridesharing.entity.BookingStatus;
 import com.ridesharing.entity.Ride;
 import com.ridesharing.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Booking rows projected straight into the response DTO with the ride and driver joined in one statement
+    String BOOKING_DTO_SELECT =
+           "SELECT new com.ridesharing.dto.BookingResponseDto(b.id, r.id, r.source, r.destination, r.departureDate, " +
+           "CONCAT(d.firstName, ' ', d.lastName), d.phoneNumber, b.seatsBooked, b.totalAmount, b.passengerName, " +
+           "b.passengerPhone, b.pickupPoint, b.status, b.bookingDate, b.updatedAt, " +
+           "r.vehicleModel, r.vehicleColor, r.vehicleNumber) " +
+           "FROM Booking b JOIN b.ride r JOIN r.driver d ";
+
+    @Query(BOOKING_DTO_SELECT + "WHERE b.passenger.id = :passengerId ORDER BY b.bookingDate DESC")
+    List<BookingResponseDto> findResponseDtosByPassengerId(@Param("passengerId") Long passengerId);
+
+    @Query(BOOKING_DTO_SELECT + "WHERE d.id = :driverId ORDER BY b.bookingDate DESC")
+    List<BookingResponseDto> findResponseDtosByDriverId(@Param("driverId") Long driverId);
+
+    @Query(BOOKING_DTO_SELECT + "WHERE r.id = :rideId AND d.id = :driverId ORDER BY b.bookingDate DESC")
+    List<BookingResponseDto> findResponseDtosByRideIdAndDriverId(@Param("rideId") Long rideId, @Param("driverId") Long driverId);
+
+    @Query(BOOKING_DTO_SELECT + "WHERE r.id = :rideId AND d.id = :driverId AND b.status = :status ORDER BY b.bookingDate ASC")
+    List<BookingResponseDto> findResponseDtosByRideIdAndDriverIdAndStatus(@Param("rideId") Long rideId,
+                                                                          @Param("driverId") Long driverId,
+                                                                          @Param("status") BookingStatus status);
+
+    @Query(BOOKING_DTO_SELECT + "WHERE b.passenger.id = :passengerId AND r.departureDate > CURRENT_TIMESTAMP " +
+           "AND b.status = :status ORDER BY r.departureDate ASC")
+    List<BookingResponseDto> findUpcomingResponseDtosByPassengerId(@Param("passengerId") Long passengerId,
+                                                                   @Param("status") BookingStatus status);
+
     // Find bookings by passenger
     List<Booking> findByPassengerOrderByBookingDateDesc(User passenger);
     
@@ -53,4 +85,23 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     // Check if passenger has any active bookings for a specific ride
     boolean existsByRideAndPassengerAndStatus(Ride ride, User passenger, BookingStatus status);
-}
\ No newline at end of file
+
+    // Cancels only a booking that is still open, so concurrent cancels cannot both release its seats
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = com.ridesharing.entity.BookingStatus.CANCELLED, b.updatedAt = :now " +
+           "WHERE b.id = :bookingId AND b.status IN (com.ridesharing.entity.BookingStatus.PENDING, com.ridesharing.entity.BookingStatus.CONFIRMED)")
+    int cancelIfOpen(@Param("bookingId") Long bookingId, @Param("now") LocalDateTime now);
+
+    // Open bookings of a ride with their passengers, for notifying everyone in one pass. A locking
+    // (current) read, so it sees bookings committed after the transaction's snapshot was taken.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.passenger WHERE b.ride.id = :rideId " +
+           "AND b.status IN (com.ridesharing.entity.BookingStatus.PENDING, com.ridesharing.entity.BookingStatus.CONFIRMED)")
+    List<Booking> findOpenBookingsWithPassenger(@Param("rideId") Long rideId);
+
+    // Set-based cancel of every open booking on a ride
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = com.ridesharing.entity.BookingStatus.CANCELLED, b.updatedAt = :now " +
+           "WHERE b.ride.id = :rideId AND b.status IN (com.ridesharing.entity.BookingStatus.PENDING, com.ridesharing.entity.BookingStatus.CONFIRMED)")
+    int cancelOpenBookingsByRide(@Param("rideId") Long rideId, @Param("now") LocalDateTime now);
+}
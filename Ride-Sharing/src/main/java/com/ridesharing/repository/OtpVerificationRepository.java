@@ -17,7 +17,5 @@ public interface OtpVerificationRepository extends JpaRepository<OtpVerification
     
     void deleteByPhoneNumber(String phoneNumber);
     
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
-    
-    long countByPhoneNumberAndCreatedAtAfter(String phoneNumber, LocalDateTime dateTime);
+    long deleteByExpiresAtBefore(LocalDateTime dateTime);
 }
\ No newline at end of file
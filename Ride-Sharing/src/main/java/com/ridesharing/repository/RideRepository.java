@@ -1,8 +1,10 @@
 package com.ridesharing.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,7 @@ import com.ridesharing.entity.User;
 
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,16 +26,27 @@ public interface RideRepository extends JpaRepository<Ride, Long> {
     
     List<Ride> findByDriverOrderByDepartureDateDesc(User driver);
 
-    // Search rides with filters
-    @Query("SELECT r FROM Ride r WHERE " +
+    // Same as above with the driver fetch-joined, for building response DTOs
+    @Query("SELECT r FROM Ride r JOIN FETCH r.driver WHERE r.driver.id = :driverId ORDER BY r.departureDate DESC")
+    List<Ride> findWithDriverByDriverId(@Param("driverId") Long driverId);
+
+    @Query("SELECT r FROM Ride r JOIN FETCH r.driver WHERE r.id IN :ids")
+    List<Ride> findAllWithDriverByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Filters shared by the offset and keyset search queries
+    String SEARCH_FILTERS =
            "(:source IS NULL OR LOWER(r.source) LIKE LOWER(CONCAT('%', :source, '%'))) AND " +
            "(:destination IS NULL OR LOWER(r.destination) LIKE LOWER(CONCAT('%', :destination, '%'))) AND " +
            "(:departureDate IS NULL OR DATE(r.departureDate) = DATE(:departureDate)) AND " +
            "(:minSeats IS NULL OR r.availableSeats >= :minSeats) AND " +
            "(:maxPrice IS NULL OR r.pricePerSeat <= :maxPrice) AND " +
            "(:vehicleType IS NULL OR LOWER(r.vehicleType) LIKE LOWER(CONCAT('%', :vehicleType, '%'))) AND " +
-           "r.status = 'ACTIVE' AND r.departureDate > CURRENT_TIMESTAMP AND r.availableSeats > 0 " +
-           "ORDER BY r.departureDate ASC")
+           "r.status = 'ACTIVE' AND r.departureDate > CURRENT_TIMESTAMP AND r.availableSeats > 0 ";
+
+    // Search rides with filters; the driver is fetch-joined so building the page needs no extra queries
+    @Query(value = "SELECT r FROM Ride r JOIN FETCH r.driver WHERE " + SEARCH_FILTERS +
+           "ORDER BY r.departureDate ASC",
+           countQuery = "SELECT COUNT(r) FROM Ride r WHERE " + SEARCH_FILTERS)
     Page<Ride> searchAvailableRides(
             @Param("source") String source,
             @Param("destination") String destination,
@@ -42,8 +56,24 @@ public interface RideRepository extends JpaRepository<Ride, Long> {
             @Param("vehicleType") String vehicleType,
             Pageable pageable);
 
+    // Keyset variant of the search: seeks past (departureDate, id) and never issues a count query
+    @Query("SELECT r FROM Ride r JOIN FETCH r.driver WHERE " + SEARCH_FILTERS +
+           "AND (:afterDate IS NULL OR r.departureDate > :afterDate OR " +
+           "(r.departureDate = :afterDate AND r.id > :afterId)) " +
+           "ORDER BY r.departureDate ASC, r.id ASC")
+    List<Ride> searchAvailableRidesAfter(
+            @Param("source") String source,
+            @Param("destination") String destination,
+            @Param("departureDate") LocalDateTime departureDate,
+            @Param("minSeats") Integer minSeats,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("vehicleType") String vehicleType,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
     // Find upcoming rides by driver
-    @Query("SELECT r FROM Ride r WHERE r.driver = :driver AND r.departureDate > CURRENT_TIMESTAMP ORDER BY r.departureDate ASC")
+    @Query("SELECT r FROM Ride r JOIN FETCH r.driver WHERE r.driver = :driver AND r.departureDate > CURRENT_TIMESTAMP ORDER BY r.departureDate ASC")
     List<Ride> findUpcomingRidesByDriver(@Param("driver") User driver);
 
     // Find past rides by driver
@@ -54,10 +84,43 @@ public interface RideRepository extends JpaRepository<Ride, Long> {
     @Query("SELECT r FROM Ride r WHERE r.status = 'ACTIVE' AND r.departureDate > CURRENT_TIMESTAMP AND r.availableSeats > 0 ORDER BY r.departureDate ASC")
     Page<Ride> findActiveRidesWithAvailableSeats(Pageable pageable);
 
+    // All bookable rides, used to build the in-memory search index
+    @Query("SELECT r FROM Ride r WHERE r.status = 'ACTIVE' AND r.departureDate > CURRENT_TIMESTAMP AND r.availableSeats > 0")
+    List<Ride> findBookableRides();
+
     // Count rides by driver
     long countByDriver(User driver);
 
     // Find rides by source and destination
     List<Ride> findBySourceContainingIgnoreCaseAndDestinationContainingIgnoreCaseAndStatusAndDepartureDateGreaterThan(
             String source, String destination, RideStatus status, LocalDateTime currentTime);
-}
\ No newline at end of file
+
+    // Atomic seat reservation: succeeds (returns 1) only while the ride is ACTIVE, upcoming and has enough seats.
+    // The status is assigned first because MySQL evaluates SET clauses left to right against updated values.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET " +
+           "r.status = CASE WHEN r.availableSeats = :seats THEN com.ridesharing.entity.RideStatus.FULL ELSE r.status END, " +
+           "r.availableSeats = r.availableSeats - :seats, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :rideId AND r.status = com.ridesharing.entity.RideStatus.ACTIVE " +
+           "AND r.availableSeats >= :seats AND r.departureDate > CURRENT_TIMESTAMP")
+    int reserveSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
+    // Gives seats back, reopening a FULL ride; never raises availability above the ride's capacity
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET " +
+           "r.status = CASE WHEN r.status = com.ridesharing.entity.RideStatus.FULL THEN com.ridesharing.entity.RideStatus.ACTIVE ELSE r.status END, " +
+           "r.availableSeats = r.availableSeats + :seats, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :rideId AND r.availableSeats + :seats <= r.totalSeats")
+    int releaseSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
+    // Closes the ride to new bookings; taking the row lock also waits out any reservation still in flight
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = com.ridesharing.entity.RideStatus.CANCELLED, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :rideId AND r.status IN (com.ridesharing.entity.RideStatus.ACTIVE, com.ridesharing.entity.RideStatus.FULL)")
+    int cancelIfOpen(@Param("rideId") Long rideId);
+
+    // Status only: a full-entity save would write back a stale available_seats over concurrent bookings
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :status, r.updatedAt = CURRENT_TIMESTAMP WHERE r.id = :rideId")
+    int updateStatus(@Param("rideId") Long rideId, @Param("status") RideStatus status);
+}
@@ -1,10 +1,12 @@
 package com.ridesharing.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.ridesharing.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,4 +23,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhoneNumberAndIsActiveTrue(String phoneNumber);
     
     Optional<User> findByEmailAndIsActiveTrue(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.ridesharing.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ridesharing.util.GcraRateLimiter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-memory limits for the unauthenticated auth endpoints, checked before any database work:
+ * every call is limited per client IP, calls that send an OTP per phone number, and password or
+ * code guesses per phone number. Limits are per instance.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    public enum Action {
+        // register and resend-otp: each one sends an SMS
+        OTP_SEND("otp_send"),
+        // login and verify-otp: each one is a credential guess
+        CREDENTIAL_ATTEMPT("credential_attempt");
+
+        private final String tag;
+
+        Action(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final GcraRateLimiter perIp;
+    private final GcraRateLimiter otpPerPhone;
+    private final GcraRateLimiter attemptsPerPhone;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.max-keys:100000}") int maxKeys,
+                           @Value("${app.ratelimit.ip.capacity:30}") int ipCapacity,
+                           @Value("${app.ratelimit.ip.period-seconds:60}") long ipPeriodSeconds,
+                           @Value("${app.ratelimit.otp.capacity:5}") int otpCapacity,
+                           @Value("${app.ratelimit.otp.period-minutes:60}") long otpPeriodMinutes,
+                           @Value("${app.ratelimit.attempts.capacity:10}") int attemptCapacity,
+                           @Value("${app.ratelimit.attempts.period-minutes:15}") long attemptPeriodMinutes) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.perIp = new GcraRateLimiter("ip", ipCapacity, Duration.ofSeconds(ipPeriodSeconds), maxKeys);
+        this.otpPerPhone = new GcraRateLimiter("otp_phone", otpCapacity, Duration.ofMinutes(otpPeriodMinutes), maxKeys);
+        this.attemptsPerPhone = new GcraRateLimiter("attempts_phone", attemptCapacity,
+                Duration.ofMinutes(attemptPeriodMinutes), maxKeys);
+
+        for (GcraRateLimiter limiter : limiters()) {
+            Gauge.builder("auth.ratelimit.keys", limiter, GcraRateLimiter::size)
+                    .tag("limit", limiter.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns 0 when the call may proceed, otherwise the suggested wait in millis. The IP limit is
+     * checked first, so a flood from one address cannot drain a victim's phone number bucket.
+     */
+    public long tryAcquire(Action action, String phoneNumber, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = perIp.tryAcquire(clientIp != null ? clientIp : "unknown");
+        if (wait > 0) {
+            return reject(action, perIp, wait);
+        }
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return 0;
+        }
+        GcraRateLimiter phoneLimit = action == Action.OTP_SEND ? otpPerPhone : attemptsPerPhone;
+        wait = phoneLimit.tryAcquire(phoneNumber.trim());
+        if (wait > 0) {
+            return reject(action, phoneLimit, wait);
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ratelimit.evict-ms:60000}")
+    public void evictIdle() {
+        int evicted = 0;
+        for (GcraRateLimiter limiter : limiters()) {
+            evicted += limiter.evictIdle();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit keys", evicted);
+        }
+    }
+
+    private long reject(Action action, GcraRateLimiter limiter, long wait) {
+        meterRegistry.counter("auth.ratelimit.rejections", "action", action.tag, "limit", limiter.getName()).increment();
+        return wait;
+    }
+
+    private List<GcraRateLimiter> limiters() {
+        return List.of(perIp, otpPerPhone, attemptsPerPhone);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,21 +16,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.io.IOException;
-import java.util.Collection;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final boolean statelessPrincipal;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, @Lazy UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, @Lazy UserDetailsService userDetailsService,
+                                   RevokedUserRegistry revokedUserRegistry,
+                                   @Value("${app.security.stateless-principal:false}") boolean statelessPrincipal) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.revokedUserRegistry = revokedUserRegistry;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -37,13 +43,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            Optional<JwtClaims> parsed = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : Optional.empty();
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String tokenType = tokenProvider.getTypeFromJWT(jwt);
+            if (parsed.isPresent()) {
+                // Verified once here; downstream code reads the principal or these claims instead of re-parsing
+                JwtClaims claims = parsed.get();
+                request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, claims);
                 
-                if ("ADMIN".equals(tokenType)) {
+                if (claims.isAdmin()) {
                     // Handle admin token
-                    String adminEmail = tokenProvider.getSubjectFromJWT(jwt);
+                    String adminEmail = claims.subject();
                     
                     // Create admin authorities directly
                     Collection<SimpleGrantedAuthority> authorities = Collections.singletonList(
@@ -56,10 +65,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                } else {
+                } else if (!revokedUserRegistry.isRevoked(claims.userId())) {
                     // Handle regular user token
-                    String username = tokenProvider.getUsernameFromToken(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = loadUser(claims);
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -74,6 +82,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Access tokens carry userId and role, so the principal can be rebuilt without a DB round trip
+    private UserDetails loadUser(JwtClaims claims) {
+        if (statelessPrincipal && "USER".equals(claims.type()) && claims.userId() != null && claims.role() != null) {
+            return UserPrincipal.fromClaims(claims);
+        }
+        return userDetailsService.loadUserByUsername(claims.subject());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,30 @@
+package com.ridesharing.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Verified claims of a JWT, parsed once per request by {@link JwtAuthenticationFilter}
+ * and attached to the request under {@link #REQUEST_ATTRIBUTE}.
+ */
+public record JwtClaims(String subject, String type, String role, Long userId, Long adminId,
+                        Instant issuedAt, Instant expiresAt) {
+
+    public static final String REQUEST_ATTRIBUTE = JwtClaims.class.getName();
+
+    static JwtClaims from(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("type", String.class),
+                claims.get("role", String.class),
+                claims.get("userId", Long.class),
+                claims.get("adminId", Long.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(type);
+    }
+}
@@ -6,24 +6,44 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ridesharing.cache.BoundedCache;
+import com.ridesharing.cache.CacheRegistry;
+
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
     private final SecretKey key;
+    private final JwtParser parser;
     private final long jwtExpirationInMs;
     private final long refreshExpirationInMs;
 
+    // Tokens that already passed verification, keyed by a cheap 64-bit hash of the token
+    private final BoundedCache<Long, VerifiedToken> verifiedTokens;
+    private final boolean tokenCacheEnabled;
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String jwtSecret,
             @Value("${jwt.expiration}") long jwtExpirationInMs,
-            @Value("${jwt.refreshExpiration}") long refreshExpirationInMs) {
+            @Value("${jwt.refreshExpiration}") long refreshExpirationInMs,
+            @Value("${app.security.token-cache.enabled:true}") boolean tokenCacheEnabled,
+            @Value("${app.security.token-cache.max-size:10000}") int tokenCacheMaxSize,
+            CacheRegistry cacheRegistry) {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(key).build();
         this.jwtExpirationInMs = jwtExpirationInMs;
         this.refreshExpirationInMs = refreshExpirationInMs;
+        this.tokenCacheEnabled = tokenCacheEnabled;
+        this.verifiedTokens = cacheRegistry.create("verified-tokens", tokenCacheMaxSize,
+                Duration.ofMillis(Math.max(jwtExpirationInMs, refreshExpirationInMs)));
     }
 
     // User token methods (existing)
@@ -81,57 +101,62 @@ public class JwtTokenProvider {
     }
 
     public String getSubjectFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.getSubject();
     }
 
     public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("userId", Long.class);
     }
 
     public Long getAdminIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("adminId", Long.class);
     }
 
     public String getRoleFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("role", String.class);
     }
 
     public String getTypeFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         return claims.get("type", String.class);
     }
 
-    public boolean validateToken(String authToken) {
+    // Verifies the signature and parses the claims in a single pass; empty when the token is not valid.
+    // Repeat presentations of a token are answered from the cache until the token's own expiry.
+    public Optional<JwtClaims> parseToken(String token) {
+        if (!tokenCacheEnabled || token == null || token.isEmpty()) {
+            return verifyAndParse(token);
+        }
+
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        long hash = fnv1a64(tokenBytes);
+        VerifiedToken cached = verifiedTokens.get(hash);
+        if (cached != null && MessageDigest.isEqual(cached.token(), tokenBytes)) {
+            if (cached.claims().expiresAt() == null || cached.claims().expiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached.claims());
+            }
+            verifiedTokens.invalidate(hash);
+        }
+
+        Optional<JwtClaims> parsed = verifyAndParse(token);
+        parsed.ifPresent(claims -> {
+            VerifiedToken verified = new VerifiedToken(tokenBytes, claims);
+            if (claims.expiresAt() != null) {
+                verifiedTokens.put(hash, verified, claims.expiresAt().toEpochMilli());
+            } else {
+                verifiedTokens.put(hash, verified);
+            }
+        });
+        return parsed;
+    }
+
+    private Optional<JwtClaims> verifyAndParse(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return Optional.of(JwtClaims.from(parser.parseSignedClaims(token).getPayload()));
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -140,8 +165,27 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("JWT signature validation failed");
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private static long fnv1a64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // The full token is kept so a hash collision can never return another token's claims
+    private record VerifiedToken(byte[] token, JwtClaims claims) {
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken).isPresent();
     }
 
     // Backward compatibility methods for existing code
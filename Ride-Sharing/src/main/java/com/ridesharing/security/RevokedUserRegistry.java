@@ -0,0 +1,52 @@
+package com.ridesharing.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ridesharing.repository.UserRepository;
+import com.ridesharing.util.TransactionHooks;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of deactivated users. Lets the stateless principal mode reject tokens of deleted accounts
+ * without looking the user up on every request. Deactivations made through this instance apply
+ * right after commit; changes made elsewhere (another node, direct SQL) apply on the next refresh.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevokedUserRegistry {
+
+    private final UserRepository userRepository;
+
+    private volatile Set<Long> revokedUserIds = Set.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:60000}",
+            initialDelayString = "${app.security.revocation.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            ids.addAll(userRepository.findInactiveUserIds());
+            revokedUserIds = ids;
+            log.debug("Revoked user registry refreshed with {} ids", ids.size());
+        } catch (Exception e) {
+            // Keep the previous set rather than letting every revoked user back in
+            log.error("Failed to refresh revoked user registry", e);
+        }
+    }
+
+    public boolean isRevoked(Long userId) {
+        return userId != null && revokedUserIds.contains(userId);
+    }
+
+    public void revokeAfterCommit(Long userId) {
+        TransactionHooks.afterCommit(() -> revokedUserIds.add(userId));
+    }
+}
@@ -45,6 +45,15 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    // Built from verified token claims only; profile fields are not carried in the token
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + claims.role())
+        );
+
+        return new UserPrincipal(claims.userId(), null, null, claims.subject(), null, null, authorities);
+    }
+
     @Override
     public String getUsername() {
         return phoneNumber;
@@ -14,6 +14,7 @@ import com.ridesharing.entity.User;
 import com.ridesharing.entity.UserRole;
 import com.ridesharing.exception.InvalidOtpException;
 import com.ridesharing.exception.UserAlreadyExistsException;
+import com.ridesharing.security.JwtClaims;
 import com.ridesharing.security.JwtTokenProvider;
 
 import java.util.HashMap;
@@ -63,12 +64,13 @@ public class AuthService {
         );
 
         // Send OTP
-        otpService.generateAndSendOtp(user.getPhoneNumber());
+        String smsDeliveryId = otpService.generateAndSendOtp(user.getPhoneNumber());
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User registered successfully. Please verify your phone number with OTP.");
         response.put("phoneNumber", user.getPhoneNumber());
         response.put("userId", user.getId());
+        response.put("smsDeliveryId", smsDeliveryId);
 
         return response;
     }
@@ -110,11 +112,10 @@ public class AuthService {
             throw new InvalidOtpException();
         }
 
-        // Mark user as verified
-        userService.verifyUser(otpDto.getPhoneNumber());
+        // Mark user as verified; use the updated entity, not the cached pre-verification copy
+        User user = userService.verifyUser(otpDto.getPhoneNumber());
 
         // Generate tokens for the verified user
-        User user = userService.getUserByPhoneNumber(otpDto.getPhoneNumber());
         String jwt = tokenProvider.generateToken(user.getPhoneNumber(), user.getId(), user.getRole().toString());
 
         Map<String, Object> response = new HashMap<>();
@@ -139,28 +140,27 @@ public class AuthService {
         userService.getUserByPhoneNumber(phoneNumber);
         
         // Generate and send new OTP
-        otpService.generateAndSendOtp(phoneNumber);
+        String smsDeliveryId = otpService.generateAndSendOtp(phoneNumber);
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "OTP sent successfully");
         response.put("phoneNumber", phoneNumber);
+        response.put("smsDeliveryId", smsDeliveryId);
 
         return response;
     }
 
     public Map<String, Object> refreshToken(String refreshToken) {
-        if (tokenProvider.validateToken(refreshToken)) {
-            String username = tokenProvider.getUsernameFromToken(refreshToken);
-            User user = userService.getUserByPhoneNumber(username);
-            String newToken = tokenProvider.generateToken(user.getPhoneNumber(), user.getId(), user.getRole().toString());
+        JwtClaims claims = tokenProvider.parseToken(refreshToken)
+                .orElseThrow(() -> new InvalidOtpException("Invalid refresh token"));
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("accessToken", newToken);
-            response.put("tokenType", "Bearer");
+        User user = userService.getUserByPhoneNumber(claims.subject());
+        String newToken = tokenProvider.generateToken(user.getPhoneNumber(), user.getId(), user.getRole().toString());
 
-            return response;
-        } else {
-            throw new InvalidOtpException("Invalid refresh token");
-        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("accessToken", newToken);
+        response.put("tokenType", "Bearer");
+
+        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.ridesharing.service;
+
+import org.thymeleaf.context.IContext;
+
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.User;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Template model shared by the booking emails. Values are formatted once when the email is queued;
+ * the record is what gets stored in the outbox and is handed to Thymeleaf through {@link #context()}
+ * without copying it into a map.
+ */
+public record BookingEmailModel(String passengerName, String passengerPhone,
+                                String driverName, String driverPhone,
+                                Long bookingId, String bookingDate, Integer seatsBooked, String totalAmount,
+                                Long rideId, String source, String destination,
+                                String departureDate, String departureTime, String pricePerSeat, String vehicleInfo,
+                                String supportEmail, int currentYear,
+                                String status, String statusMessage, String statusColor) {
+
+    // DateTimeFormatter is immutable and thread-safe; no need to rebuild per email
+    private static final DateTimeFormatter BOOKING_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+    private static final DateTimeFormatter DEPARTURE_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final DateTimeFormatter DEPARTURE_TIME = DateTimeFormatter.ofPattern("hh:mm a");
+    // NumberFormat is not thread-safe, so each outbox/request thread keeps its own en-IN instance
+    private static final ThreadLocal<NumberFormat> RUPEES = ThreadLocal.withInitial(() -> {
+        NumberFormat format = NumberFormat.getNumberInstance(Locale.forLanguageTag("en-IN"));
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    });
+
+    static final List<String> VARIABLE_NAMES = List.of(
+            "passengerName", "passengerPhone", "driverName", "driverPhone",
+            "bookingId", "bookingDate", "seatsBooked", "totalAmount",
+            "rideId", "source", "destination", "departureDate", "departureTime", "pricePerSeat", "vehicleInfo",
+            "supportEmail", "currentYear", "status", "statusMessage", "statusColor");
+
+    public static BookingEmailModel of(User passenger, Booking booking, Ride ride, User driver, String supportEmail) {
+        return new BookingEmailModel(
+                passenger.getFirstName() + " " + passenger.getLastName(),
+                passenger.getPhoneNumber(),
+                driver.getFirstName() + " " + driver.getLastName(),
+                driver.getPhoneNumber(),
+                booking.getId(),
+                booking.getBookingDate().format(BOOKING_DATE),
+                booking.getSeatsBooked(),
+                rupees(booking.getTotalAmount()),
+                ride.getId(),
+                ride.getSource(),
+                ride.getDestination(),
+                ride.getDepartureDate().format(DEPARTURE_DATE),
+                ride.getDepartureDate().format(DEPARTURE_TIME),
+                rupees(ride.getPricePerSeat()),
+                ride.getVehicleNumber() + " (" + ride.getVehicleType() + ")",
+                supportEmail,
+                Year.now().getValue(),
+                null, null, null);
+    }
+
+    public BookingEmailModel withStatus(String status, String statusMessage, String statusColor) {
+        return new BookingEmailModel(passengerName, passengerPhone, driverName, driverPhone,
+                bookingId, bookingDate, seatsBooked, totalAmount,
+                rideId, source, destination, departureDate, departureTime, pricePerSeat, vehicleInfo,
+                supportEmail, currentYear, status, statusMessage, statusColor);
+    }
+
+    // Grouped, two-decimal en-IN amount, e.g. ₹1,250.00
+    static String rupees(BigDecimal amount) {
+        return amount == null ? "₹null" : "₹" + RUPEES.get().format(amount);
+    }
+
+    public IContext context() {
+        return new TemplateContext(this);
+    }
+
+    Object variable(String name) {
+        return switch (name) {
+            case "passengerName" -> passengerName;
+            case "passengerPhone" -> passengerPhone;
+            case "driverName" -> driverName;
+            case "driverPhone" -> driverPhone;
+            case "bookingId" -> bookingId;
+            case "bookingDate" -> bookingDate;
+            case "seatsBooked" -> seatsBooked;
+            case "totalAmount" -> totalAmount;
+            case "rideId" -> rideId;
+            case "source" -> source;
+            case "destination" -> destination;
+            case "departureDate" -> departureDate;
+            case "departureTime" -> departureTime;
+            case "pricePerSeat" -> pricePerSeat;
+            case "vehicleInfo" -> vehicleInfo;
+            case "supportEmail" -> supportEmail;
+            case "currentYear" -> currentYear;
+            case "status" -> status;
+            case "statusMessage" -> statusMessage;
+            case "statusColor" -> statusColor;
+            default -> null;
+        };
+    }
+
+    // Read-only Thymeleaf view over the record's components
+    private record TemplateContext(BookingEmailModel model) implements IContext {
+
+        private static final Set<String> NAMES = Set.copyOf(VARIABLE_NAMES);
+
+        @Override
+        public Locale getLocale() {
+            return Locale.getDefault();
+        }
+
+        @Override
+        public boolean containsVariable(String name) {
+            return NAMES.contains(name);
+        }
+
+        @Override
+        public Set<String> getVariableNames() {
+            return NAMES;
+        }
+
+        @Override
+        public Object getVariable(String name) {
+            return model.variable(name);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.ridesharing.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.ridesharing.dto.BookingDto;
 import com.ridesharing.dto.BookingResponseDto;
@@ -13,11 +18,11 @@ import com.ridesharing.entity.RideStatus;
 import com.ridesharing.entity.User;
 import com.ridesharing.repository.BookingRepository;
 import com.ridesharing.repository.RideRepository;
+import com.ridesharing.util.TransactionHooks;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -28,8 +33,39 @@ public class BookingService {
     private final RideRepository rideRepository;
     private final UserService userService;
     private final EmailService emailService;
-
+    private final RideSearchIndex rideSearchIndex;
+    private final RideSearchCache rideSearchCache;
+    private final EntityManager entityManager;
+    private final SeatInventory seatInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Sold-out attempts are turned away by the seat inventory before a connection is borrowed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "bookings.book", percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public BookingResponseDto bookRide(String phoneNumber, BookingDto bookingDto) {
+        Long rideId = bookingDto.getRideId();
+        int seats = bookingDto.getSeatsBooked();
+
+        SeatInventory.Admission admission = seatInventory.tryAcquire(rideId, seats);
+        if (admission == SeatInventory.Admission.REJECTED) {
+            countAttempt("sold_out", "inventory");
+            throw new RuntimeException("Not enough seats available for this ride");
+        }
+        try {
+            BookingResponseDto booked = transactionTemplate.execute(status -> reserveAndBook(phoneNumber, bookingDto));
+            countAttempt("booked", "database");
+            return booked;
+        } catch (RuntimeException e) {
+            if (admission == SeatInventory.Admission.ACQUIRED) {
+                seatInventory.release(rideId, seats);
+            }
+            countAttempt(e instanceof SeatsUnavailableException ? "sold_out" : "rejected", "database");
+            throw e;
+        }
+    }
+
+    private BookingResponseDto reserveAndBook(String phoneNumber, BookingDto bookingDto) {
         User passenger = userService.getUserByPhoneNumber(phoneNumber);
         
         // Get the ride
@@ -39,6 +75,12 @@ public class BookingService {
         // Validate booking
         validateBooking(passenger, ride, bookingDto.getSeatsBooked());
 
+        // The checks above only produce friendly errors; this conditional update is what prevents overselling
+        if (rideRepository.reserveSeats(ride.getId(), bookingDto.getSeatsBooked()) == 0) {
+            throw new SeatsUnavailableException();
+        }
+        entityManager.refresh(ride);
+
         // Calculate total amount
         BigDecimal totalAmount = ride.getPricePerSeat()
                 .multiply(BigDecimal.valueOf(bookingDto.getSeatsBooked()));
@@ -54,45 +96,25 @@ public class BookingService {
         booking.setPickupPoint(bookingDto.getPickupPoint());
         booking.setStatus(BookingStatus.PENDING); // Default status is PENDING
 
-        // Update ride availability
-        ride.setAvailableSeats(ride.getAvailableSeats() - bookingDto.getSeatsBooked());
-        
-        // Update ride status if fully booked
-        if (ride.getAvailableSeats() == 0) {
-            ride.setStatus(RideStatus.FULL);
-        }
-
-        rideRepository.save(ride);
         Booking savedBooking = bookingRepository.save(booking);
+        rideChanged(ride);
         
         return convertToResponseDto(savedBooking);
     }
 
     public List<BookingResponseDto> getPassengerBookings(String phoneNumber) {
         User passenger = userService.getUserByPhoneNumber(phoneNumber);
-        List<Booking> bookings = bookingRepository.findByPassengerOrderByBookingDateDesc(passenger);
-        
-        return bookings.stream()
-                      .map(this::convertToResponseDto)
-                      .collect(Collectors.toList());
+        return bookingRepository.findResponseDtosByPassengerId(passenger.getId());
     }
 
     public List<BookingResponseDto> getDriverBookings(String phoneNumber) {
         User driver = userService.getUserByPhoneNumber(phoneNumber);
-        List<Booking> bookings = bookingRepository.findByDriver(driver);
-        
-        return bookings.stream()
-                      .map(this::convertToResponseDto)
-                      .collect(Collectors.toList());
+        return bookingRepository.findResponseDtosByDriverId(driver.getId());
     }
 
     public List<BookingResponseDto> getUpcomingBookings(String phoneNumber) {
         User passenger = userService.getUserByPhoneNumber(phoneNumber);
-        List<Booking> bookings = bookingRepository.findUpcomingBookingsByPassenger(passenger, BookingStatus.CONFIRMED);
-        
-        return bookings.stream()
-                      .map(this::convertToResponseDto)
-                      .collect(Collectors.toList());
+        return bookingRepository.findUpcomingResponseDtosByPassengerId(passenger.getId(), BookingStatus.CONFIRMED);
     }
 
     public BookingResponseDto cancelBooking(String phoneNumber, Long bookingId) {
@@ -111,22 +133,11 @@ public class BookingService {
             throw new RuntimeException("Cannot cancel booking less than 2 hours before departure");
         }
 
-        // Update booking status
-        booking.setStatus(BookingStatus.CANCELLED);
-
-        // Restore ride availability
-        Ride ride = booking.getRide();
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
+        // Update booking status and restore ride availability
+        cancelAndReleaseSeats(booking);
+        countTransition(BookingStatus.CANCELLED, "passenger");
         
-        // Update ride status if it was full
-        if (ride.getStatus() == RideStatus.FULL) {
-            ride.setStatus(RideStatus.ACTIVE);
-        }
-
-        rideRepository.save(ride);
-        Booking updatedBooking = bookingRepository.save(booking);
-        
-        return convertToResponseDto(updatedBooking);
+        return convertToResponseDto(booking);
     }
 
     public BookingResponseDto getBookingById(Long bookingId) {
@@ -137,21 +148,13 @@ public class BookingService {
 
     public List<BookingResponseDto> getConfirmedRideBookings(String phoneNumber, Long rideId) {
         User driver = userService.getUserByPhoneNumber(phoneNumber);
-        
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found"));
 
-        // Check if user owns this ride
-        if (!ride.getDriver().getId().equals(driver.getId())) {
-            throw new RuntimeException("You can only view bookings for your own rides");
+        List<BookingResponseDto> bookings = bookingRepository.findResponseDtosByRideIdAndDriverIdAndStatus(
+            rideId, driver.getId(), BookingStatus.CONFIRMED);
+        if (bookings.isEmpty()) {
+            checkRideOwnership(rideId, driver);
         }
-
-        List<Booking> bookings = bookingRepository.findByRideAndStatusOrderByBookingDateAsc(
-            ride, BookingStatus.CONFIRMED);
-        
-        return bookings.stream()
-                      .map(this::convertToResponseDto)
-                      .collect(Collectors.toList());
+        return bookings;
     }
 
     // Driver booking management methods
@@ -176,19 +179,15 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         
         Booking savedBooking = bookingRepository.save(booking);
+        countTransition(BookingStatus.CONFIRMED, "driver");
         
-        // Send confirmation email to passenger
-        try {
-            emailService.sendBookingConfirmationEmail(
-                booking.getPassenger(), 
-                savedBooking, 
-                booking.getRide(), 
-                driver
-            );
-        } catch (Exception e) {
-            // Log error but don't fail the booking confirmation
-            System.err.println("Failed to send confirmation email: " + e.getMessage());
-        }
+        // Queue confirmation email to passenger; sent after commit by the outbox dispatcher
+        emailService.queueBookingConfirmationEmail(
+            booking.getPassenger(), 
+            savedBooking, 
+            booking.getRide(), 
+            driver
+        );
         
         return convertToResponseDto(savedBooking);
     }
@@ -210,53 +209,29 @@ public class BookingService {
             throw new RuntimeException("Completed bookings cannot be cancelled");
         }
         
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setUpdatedAt(LocalDateTime.now());
-        
-        // Restore available seats
-        Ride ride = booking.getRide();
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
-        
-        // Update ride status if it was FULL
-        if (ride.getStatus() == RideStatus.FULL) {
-            ride.setStatus(RideStatus.ACTIVE);
-        }
-        
-        rideRepository.save(ride);
-        Booking savedBooking = bookingRepository.save(booking);
+        // Cancel and restore available seats
+        cancelAndReleaseSeats(booking);
+        countTransition(BookingStatus.CANCELLED, "driver");
         
-        // Send cancellation email to passenger
-        try {
-            emailService.sendBookingCancellationEmail(
-                booking.getPassenger(), 
-                savedBooking, 
-                booking.getRide(), 
-                driver
-            );
-        } catch (Exception e) {
-            // Log error but don't fail the booking cancellation
-            System.err.println("Failed to send cancellation email: " + e.getMessage());
-        }
+        // Queue cancellation email to passenger; sent after commit by the outbox dispatcher
+        emailService.queueBookingCancellationEmail(
+            booking.getPassenger(), 
+            booking, 
+            booking.getRide(), 
+            driver
+        );
         
-        return convertToResponseDto(savedBooking);
+        return convertToResponseDto(booking);
     }
 
     public List<BookingResponseDto> getRideBookings(String driverPhoneNumber, Long rideId) {
         User driver = userService.getUserByPhoneNumber(driverPhoneNumber);
-        
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found"));
-        
-        // Verify the ride belongs to the driver
-        if (!ride.getDriver().getId().equals(driver.getId())) {
-            throw new RuntimeException("You can only view bookings for your own rides");
+
+        List<BookingResponseDto> bookings = bookingRepository.findResponseDtosByRideIdAndDriverId(rideId, driver.getId());
+        if (bookings.isEmpty()) {
+            checkRideOwnership(rideId, driver);
         }
-        
-        List<Booking> bookings = bookingRepository.findByRideOrderByBookingDateDesc(ride);
-        
-        return bookings.stream()
-                      .map(this::convertToResponseDto)
-                      .collect(Collectors.toList());
+        return bookings;
     }
 
     private void validateBooking(User passenger, Ride ride, int seatsRequested) {
@@ -287,7 +262,55 @@ public class BookingService {
         }
     }
 
-    private BookingResponseDto convertToResponseDto(Booking booking) {
+    // The projection queries filter by driver, so an empty result is the only case that needs explaining
+    private void checkRideOwnership(Long rideId, User driver) {
+        Ride ride = rideRepository.findById(rideId)
+                .orElseThrow(() -> new RuntimeException("Ride not found"));
+
+        if (!ride.getDriver().getId().equals(driver.getId())) {
+            throw new RuntimeException("You can only view bookings for your own rides");
+        }
+    }
+
+    // Two conditional updates: only the first cancel of an open booking wins and releases its seats
+    private void cancelAndReleaseSeats(Booking booking) {
+        if (bookingRepository.cancelIfOpen(booking.getId(), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Booking is already cancelled or completed");
+        }
+        // The counter follows the row: nothing to hand back when the cap check refused the release
+        if (rideRepository.releaseSeats(booking.getRide().getId(), booking.getSeatsBooked()) > 0) {
+            seatInventory.releaseAfterCommit(booking.getRide().getId(), booking.getSeatsBooked());
+        }
+
+        entityManager.refresh(booking);
+        entityManager.refresh(booking.getRide());
+        rideChanged(booking.getRide());
+    }
+
+    // Seat counts changed: refresh the search index and drop cached results for the route
+    private void rideChanged(Ride ride) {
+        rideSearchIndex.refreshAfterCommit(ride);
+        rideSearchCache.invalidateAfterCommit(ride);
+    }
+
+    // outcome: booked, sold_out or rejected (validation); stage: where the attempt was decided
+    private void countAttempt(String outcome, String stage) {
+        meterRegistry.counter("bookings.attempts", "outcome", outcome, "stage", stage).increment();
+    }
+
+    private void countTransition(BookingStatus status, String actor) {
+        TransactionHooks.afterCommit(() ->
+            meterRegistry.counter("bookings.transitions", "status", status.name(), "actor", actor).increment());
+    }
+
+    // Lost the race for the last seats in the conditional update
+    private static final class SeatsUnavailableException extends RuntimeException {
+        SeatsUnavailableException() {
+            super("Not enough seats available for this ride");
+        }
+    }
+
+    static BookingResponseDto convertToResponseDto(Booking booking) {
         BookingResponseDto dto = new BookingResponseDto();
         dto.setId(booking.getId());
         dto.setRideId(booking.getRide().getId());
@@ -0,0 +1,176 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.entity.EmailOutbox;
+import com.ridesharing.entity.EmailOutboxStatus;
+import com.ridesharing.repository.EmailOutboxRepository;
+import com.ridesharing.util.WorkerThreads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Delivers queued emails in batches, several batches in parallel (one SMTP connection each). Rows are claimed in a short transaction (marked SENDING with a
+ * lease), rendered and sent over one pooled SMTP connection with no transaction open, then marked SENT or rescheduled with
+ * exponential backoff. A dispatcher that dies mid-batch leaves its rows to be reclaimed once the
+ * lease runs out, so delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int parallelism;
+    private final ExecutorService deliveryExecutor;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailService emailService,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email.outbox.enabled:true}") boolean enabled,
+                                 @Value("${app.email.outbox.batch-size:20}") int batchSize,
+                                 @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.email.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                                 @Value("${app.email.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                                 @Value("${app.email.outbox.lease-seconds:300}") long leaseSeconds,
+                                 @Value("${app.email.outbox.parallelism:3}") int parallelism,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.parallelism = Math.max(1, parallelism);
+        // Concurrency stays bounded by parallelism: dispatch() never has more batches in flight than that
+        this.deliveryExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(WorkerThreads.factory("email-outbox-", true))
+                : Executors.newFixedThreadPool(this.parallelism, WorkerThreads.factory("email-outbox-", false));
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:2000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        boolean more = true;
+        while (more) {
+            // Claim up to one batch per worker, deliver them side by side, then go again if the queue was full
+            List<Future<?>> inFlight = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism && more; i++) {
+                List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+                more = batch.size() == batchSize;
+                if (!batch.isEmpty()) {
+                    inFlight.add(deliveryExecutor.submit(() -> deliver(batch)));
+                }
+            }
+            awaitAll(inFlight);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdown();
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Rows stay SENDING and are retried when their lease expires
+                log.error("Email batch delivery failed", e.getCause());
+            }
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.claimDue(now, batchSize);
+        for (EmailOutbox email : batch) {
+            email.setStatus(EmailOutboxStatus.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(lease));
+        }
+        return batch;
+    }
+
+    // The whole batch is rendered and sent over one pooled SMTP connection
+    private void deliver(List<EmailOutbox> batch) {
+        List<Exception> results = emailService.deliverAll(batch);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            Exception failure = results.get(i);
+            if (failure == null) {
+                email.setStatus(EmailOutboxStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                countDelivery("sent");
+            } else {
+                scheduleRetry(email, failure);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    private void scheduleRetry(EmailOutbox email, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        email.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailOutboxStatus.FAILED);
+            countDelivery("failed");
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(),
+                    email.getAttempts(), error);
+            return;
+        }
+        Duration backoff = backoff(email.getAttempts());
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        countDelivery("retry");
+        log.warn("Email {} to {} failed (attempt {}), retrying in {}s: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), backoff.toSeconds(), message);
+    }
+
+    private void countDelivery(String outcome) {
+        meterRegistry.counter("email.deliveries", "outcome", outcome).increment();
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
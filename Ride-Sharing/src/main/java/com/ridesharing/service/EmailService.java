@@ -1,31 +1,44 @@
 package com.ridesharing.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.EmailOutbox;
 import com.ridesharing.entity.Ride;
 import com.ridesharing.entity.User;
+import com.ridesharing.repository.EmailOutboxRepository;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    private static final List<String> BOOKING_TEMPLATES =
+            List.of("booking-confirmed", "booking-cancelled", "booking-status-update");
+
     private final JavaMailSender emailSender;
     private final SpringTemplateEngine templateEngine;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final SmtpTransportPool smtpTransportPool;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -33,88 +46,107 @@ public class EmailService {
     @Value("${app.email.support}")
     private String supportEmail;
 
-    public void sendBookingConfirmationEmail(User passenger, Booking booking, Ride ride, User driver) {
-        try {
-            String subject = "Booking Confirmed - SmartRide";
-            String templateName = "booking-confirmed";
-            
-            Map<String, Object> templateModel = createBookingEmailModel(passenger, booking, ride, driver);
-            templateModel.put("status", "CONFIRMED");
-            templateModel.put("statusMessage", "Your booking has been confirmed by the driver!");
-            templateModel.put("statusColor", "#10B981"); // Green color
-            
-            sendTemplateEmail(passenger.getEmail(), subject, templateName, templateModel);
-            log.info("Booking confirmation email sent to: {}", passenger.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send booking confirmation email to: {}", passenger.getEmail(), e);
+    // Booking emails are queued in the caller's transaction and delivered by EmailOutboxDispatcher
+
+    public void queueBookingConfirmationEmail(User passenger, Booking booking, Ride ride, User driver) {
+        BookingEmailModel model = BookingEmailModel.of(passenger, booking, ride, driver, supportEmail)
+                .withStatus("CONFIRMED", "Your booking has been confirmed by the driver!", "#10B981"); // Green color
+
+        enqueue(passenger.getEmail(), "Booking Confirmed - SmartRide", "booking-confirmed", model);
+    }
+
+    public void queueBookingCancellationEmail(User passenger, Booking booking, Ride ride, User driver) {
+        BookingEmailModel model = BookingEmailModel.of(passenger, booking, ride, driver, supportEmail)
+                .withStatus("CANCELLED", "Your booking has been cancelled by the driver.", "#EF4444"); // Red color
+
+        enqueue(passenger.getEmail(), "Booking Cancelled - SmartRide", "booking-cancelled", model);
+    }
+
+    public void queueBookingStatusUpdateEmail(User passenger, Booking booking, Ride ride, User driver, String status) {
+        BookingEmailModel model = BookingEmailModel.of(passenger, booking, ride, driver, supportEmail)
+                .withStatus(status, getStatusMessage(status), getStatusColor(status));
+
+        enqueue(passenger.getEmail(), String.format("Booking %s - SmartRide", status), "booking-status-update", model);
+    }
+
+    // One outbox insert batch for all passengers of a cancelled ride
+    public int queueBookingCancellationEmails(List<Booking> bookings, Ride ride, User driver) {
+        List<EmailOutbox> emails = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            User passenger = booking.getPassenger();
+            BookingEmailModel model = BookingEmailModel.of(passenger, booking, ride, driver, supportEmail)
+                    .withStatus("CANCELLED", "Your booking has been cancelled by the driver.", "#EF4444");
+            emails.add(outboxEntry(passenger.getEmail(), "Booking Cancelled - SmartRide", "booking-cancelled", model));
         }
+        emailOutboxRepository.saveAll(emails);
+        log.debug("Queued {} cancellation emails for ride {}", emails.size(), ride.getId());
+        return emails.size();
     }
 
-    public void sendBookingCancellationEmail(User passenger, Booking booking, Ride ride, User driver) {
+    private void enqueue(String to, String subject, String templateName, BookingEmailModel model) {
+        emailOutboxRepository.save(outboxEntry(to, subject, templateName, model));
+        log.debug("Queued {} email to: {}", templateName, to);
+    }
+
+    private EmailOutbox outboxEntry(String to, String subject, String templateName, BookingEmailModel model) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setTemplateName(templateName);
         try {
-            String subject = "Booking Cancelled - SmartRide";
-            String templateName = "booking-cancelled";
-            
-            Map<String, Object> templateModel = createBookingEmailModel(passenger, booking, ride, driver);
-            templateModel.put("status", "CANCELLED");
-            templateModel.put("statusMessage", "Your booking has been cancelled by the driver.");
-            templateModel.put("statusColor", "#EF4444"); // Red color
-            
-            sendTemplateEmail(passenger.getEmail(), subject, templateName, templateModel);
-            log.info("Booking cancellation email sent to: {}", passenger.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send booking cancellation email to: {}", passenger.getEmail(), e);
+            email.setPayload(objectMapper.writeValueAsString(model));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize email model", e);
         }
+        return email;
     }
 
-    public void sendBookingStatusUpdateEmail(User passenger, Booking booking, Ride ride, User driver, String status) {
-        try {
-            String subject = String.format("Booking %s - SmartRide", status);
-            String templateName = "booking-status-update";
-            
-            Map<String, Object> templateModel = createBookingEmailModel(passenger, booking, ride, driver);
-            templateModel.put("status", status);
-            templateModel.put("statusMessage", getStatusMessage(status));
-            templateModel.put("statusColor", getStatusColor(status));
-            
-            sendTemplateEmail(passenger.getEmail(), subject, templateName, templateModel);
-            log.info("Booking status update email sent to: {} for status: {}", passenger.getEmail(), status);
-        } catch (Exception e) {
-            log.error("Failed to send booking status update email to: {}", passenger.getEmail(), e);
+    // Renders and sends a queued email; failures propagate so the dispatcher can retry
+    public void deliver(EmailOutbox email) {
+        Exception failure = deliverAll(List.of(email)).get(0);
+        if (failure != null) {
+            throw failure instanceof RuntimeException runtime ? runtime : new RuntimeException("Failed to send email", failure);
+        }
+    }
+
+    /**
+     * Renders a batch of queued emails and sends them over a single pooled SMTP connection where
+     * possible. The result is index-aligned with the input: null when sent, otherwise the failure.
+     */
+    @Timed(value = "email.delivery.batch", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public List<Exception> deliverAll(List<EmailOutbox> emails) {
+        Exception[] results = new Exception[emails.size()];
+        List<MimeMessage> rendered = new ArrayList<>(emails.size());
+        List<Integer> renderedIndexes = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            try {
+                rendered.add(render(emails.get(i)));
+                renderedIndexes.add(i);
+            } catch (Exception e) {
+                log.error("Failed to render email {} to: {}", emails.get(i).getId(), emails.get(i).getRecipient(), e);
+                results[i] = e;
+            }
+        }
+
+        List<Exception> sendResults = smtpTransportPool.send(rendered);
+        for (int j = 0; j < sendResults.size(); j++) {
+            int i = renderedIndexes.get(j);
+            results[i] = sendResults.get(j);
+            if (results[i] == null) {
+                log.info("Email '{}' sent to: {}", emails.get(i).getSubject(), emails.get(i).getRecipient());
+            }
         }
+        return Arrays.asList(results);
     }
 
-    private Map<String, Object> createBookingEmailModel(User passenger, Booking booking, Ride ride, User driver) {
-        Map<String, Object> model = new HashMap<>();
-        
-        // Passenger details
-        model.put("passengerName", passenger.getFirstName() + " " + passenger.getLastName());
-        model.put("passengerPhone", passenger.getPhoneNumber());
-        
-        // Driver details
-        model.put("driverName", driver.getFirstName() + " " + driver.getLastName());
-        model.put("driverPhone", driver.getPhoneNumber());
-        
-        // Booking details
-        model.put("bookingId", booking.getId());
-        model.put("bookingDate", booking.getBookingDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a")));
-        model.put("seatsBooked", booking.getSeatsBooked());
-        model.put("totalAmount", String.format("₹%.2f", booking.getTotalAmount()));
-        
-        // Ride details
-        model.put("rideId", ride.getId());
-        model.put("source", ride.getSource());
-        model.put("destination", ride.getDestination());
-        model.put("departureDate", ride.getDepartureDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        model.put("departureTime", ride.getDepartureDate().format(DateTimeFormatter.ofPattern("hh:mm a")));
-        model.put("pricePerSeat", String.format("₹%.2f", ride.getPricePerSeat()));
-        model.put("vehicleInfo", ride.getVehicleNumber() + " (" + ride.getVehicleType() + ")");
-        
-        // Support details
-        model.put("supportEmail", supportEmail);
-        model.put("currentYear", java.time.Year.now().getValue());
-        
-        return model;
+    public MimeMessage render(EmailOutbox email) throws MessagingException {
+        BookingEmailModel model;
+        try {
+            model = objectMapper.readValue(email.getPayload(), BookingEmailModel.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable email payload for outbox id " + email.getId(), e);
+        }
+        return renderTemplateEmail(email.getRecipient(), email.getSubject(), email.getTemplateName(), model);
     }
 
     private String getStatusMessage(String status) {
@@ -137,27 +169,36 @@ public class EmailService {
         };
     }
 
-    private void sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> templateModel) {
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    private MimeMessage renderTemplateEmail(String to, String subject, String templateName,
+                                            BookingEmailModel model) throws MessagingException {
+        MimeMessage message = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-            // Create Thymeleaf context
-            Context context = new Context();
-            context.setVariables(templateModel);
+        // Process the template (parsed once and served from the template cache afterwards)
+        String htmlContent = renderHtml(templateName, model);
 
-            // Process the template
-            String htmlContent = templateEngine.process(templateName, context);
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return message;
+    }
 
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
+    public String renderHtml(String templateName, BookingEmailModel model) {
+        return templateEngine.process(templateName, model.context());
+    }
 
-            emailSender.send(message);
-        } catch (MessagingException e) {
-            log.error("Failed to send email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
+    // Parse every booking template at startup so the first real email does not pay for it
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        BookingEmailModel sample = new BookingEmailModel("Passenger", "", "Driver", "", 0L, "", 1, "₹0.00",
+                0L, "", "", "", "", "₹0.00", "", supportEmail, Year.now().getValue(), "PENDING", "", "#6B7280");
+        for (String templateName : BOOKING_TEMPLATES) {
+            try {
+                renderHtml(templateName, sample);
+            } catch (Exception e) {
+                log.warn("Failed to pre-render email template {}", templateName, e);
+            }
         }
     }
 
@@ -171,7 +212,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(text, false);
 
-            emailSender.send(message);
+            smtpTransportPool.send(message);
             log.info("Simple email sent to: {}", to);
         } catch (MessagingException e) {
             log.error("Failed to send simple email to: {}", to, e);
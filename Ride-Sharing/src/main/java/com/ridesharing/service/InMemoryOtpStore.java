@@ -0,0 +1,155 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps pending codes in process memory so issuing and verifying an OTP never touches MySQL. Only an
+ * HMAC of each code is held (keyed per process, so a heap dump does not reveal codes), and a code is
+ * consumed with a compare-and-remove, so concurrent verifications of the same code succeed once.
+ * Expired codes are reclaimed through a hashed time wheel: every issue drops the entry into the slot
+ * of its expiry tick and a purge only walks the slots whose ticks have passed. Codes do not survive a
+ * restart and are not shared between instances; use {@code app.otp.store=jpa} for that.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, Entry> codes = new ConcurrentHashMap<>();
+    private final Queue<Entry>[] wheel;
+    private final long tickMillis;
+    private final int maxEntries;
+    private final SecretKeySpec hmacKey;
+    private volatile long cursor;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(MeterRegistry meterRegistry,
+                            @Value("${app.otp.memory.max-entries:100000}") int maxEntries,
+                            @Value("${app.otp.memory.wheel-tick-ms:5000}") long tickMillis,
+                            @Value("${app.otp.memory.wheel-slots:128}") int slots) {
+        this.maxEntries = maxEntries;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.wheel = new Queue[Math.max(2, slots)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.cursor = System.currentTimeMillis() / this.tickMillis;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+
+        Gauge.builder("otp.store.size", codes, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void issue(String phoneNumber, String otp, Duration ttl) {
+        if (codes.size() >= maxEntries && !codes.containsKey(phoneNumber)) {
+            throw new RuntimeException("Too many pending verification codes, please try again shortly");
+        }
+        Entry entry = new Entry(phoneNumber, hash(phoneNumber, otp), System.currentTimeMillis() + ttl.toMillis());
+        codes.put(phoneNumber, entry);
+        schedule(entry);
+    }
+
+    @Override
+    public boolean consume(String phoneNumber, String otp) {
+        Entry entry = codes.get(phoneNumber);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            codes.remove(phoneNumber, entry);
+            return false;
+        }
+        if (!MessageDigest.isEqual(entry.hash(), hash(phoneNumber, otp))) {
+            return false;
+        }
+        return codes.remove(phoneNumber, entry);
+    }
+
+    @Override
+    public synchronized long purgeExpired() {
+        long now = System.currentTimeMillis();
+        long lastTick = now / tickMillis;
+        // After a long pause every slot is due, but each only needs walking once
+        long from = Math.max(cursor, lastTick - wheel.length + 1);
+        cursor = lastTick + 1;
+
+        long removed = 0;
+        for (long tick = from; tick <= lastTick; tick++) {
+            Queue<Entry> slot = wheel[slotIndex(tick)];
+            // Only what is there now; entries rescheduled into this slot wait for its next turn
+            for (int pending = slot.size(); pending > 0; pending--) {
+                Entry entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (codes.get(entry.phoneNumber()) != entry) {
+                    continue; // already consumed or replaced by a newer code
+                }
+                if (entry.isExpired(now)) {
+                    if (codes.remove(entry.phoneNumber(), entry)) {
+                        removed++;
+                    }
+                } else {
+                    schedule(entry); // expiry was further out than one turn of the wheel
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Purged {} expired OTP codes", removed);
+        }
+        return removed;
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    private void schedule(Entry entry) {
+        long current = cursor;
+        long tick = entry.expiresAtMillis() / tickMillis;
+        // Past ticks go into the next slot to be walked, far ones into the last slot of this turn
+        tick = Math.min(Math.max(tick, current), current + wheel.length - 1);
+        wheel[slotIndex(tick)].add(entry);
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+
+    private byte[] hash(String phoneNumber, String otp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            return mac.doFinal((phoneNumber + ':' + otp).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private record Entry(String phoneNumber, byte[] hash, long expiresAtMillis) {
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
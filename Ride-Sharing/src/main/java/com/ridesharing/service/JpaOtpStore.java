@@ -0,0 +1,51 @@
+package com.ridesharing.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ridesharing.entity.OtpVerification;
+import com.ridesharing.repository.OtpVerificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Keeps codes in the otp_verification table, so they are shared by every instance and survive restarts
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jpa")
+@RequiredArgsConstructor
+@Transactional
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpVerificationRepository otpRepository;
+
+    @Override
+    public void issue(String phoneNumber, String otp, Duration ttl) {
+        otpRepository.deleteByPhoneNumber(phoneNumber);
+        otpRepository.save(new OtpVerification(phoneNumber, otp, LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    public boolean consume(String phoneNumber, String otp) {
+        Optional<OtpVerification> otpVerificationOpt = otpRepository.findByPhoneNumberAndOtpAndIsUsedFalse(phoneNumber, otp);
+
+        if (otpVerificationOpt.isPresent()) {
+            OtpVerification otpVerification = otpVerificationOpt.get();
+
+            if (otpVerification.isValid()) {
+                otpVerification.markAsUsed();
+                otpRepository.save(otpVerification);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public long purgeExpired() {
+        return otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+    }
+}
@@ -1,6 +1,7 @@
 package com.ridesharing.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,7 @@ import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class MockOtpService {
 
     private final OtpVerificationRepository otpVerificationRepository;
@@ -41,12 +43,8 @@ public class MockOtpService {
 
         if (mockOtpEnabled) {
             // Mock mode - just log the OTP
-            System.out.println("==============================================");
-            System.out.println("🔐 MOCK OTP FOR DEVELOPMENT");
-            System.out.println("📱 Phone: " + phoneNumber);
-            System.out.println("🔢 OTP: " + otp);
-            System.out.println("⏰ Expires: " + otpVerification.getExpiresAt());
-            System.out.println("==============================================");
+            log.info("Mock OTP for development - phone: {}, OTP: {}, expires: {}",
+                phoneNumber, otp, otpVerification.getExpiresAt());
         } else {
             // Try to send real SMS, but handle trial account gracefully
             try {
@@ -54,12 +52,8 @@ public class MockOtpService {
                 sendRealSms(phoneNumber, otp);
             } catch (Exception e) {
                 // If Twilio fails, log OTP for development
-                System.err.println("Twilio SMS failed: " + e.getMessage());
-                System.out.println("==============================================");
-                System.out.println("🔐 FALLBACK OTP (Twilio Failed)");
-                System.out.println("📱 Phone: " + phoneNumber);
-                System.out.println("🔢 OTP: " + otp);
-                System.out.println("==============================================");
+                log.error("Twilio SMS failed: {}", e.getMessage());
+                log.info("Fallback OTP (Twilio failed) - phone: {}, OTP: {}", phoneNumber, otp);
             }
         }
     }
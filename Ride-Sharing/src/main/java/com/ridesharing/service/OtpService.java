@@ -1,99 +1,64 @@
 package com.ridesharing.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import com.ridesharing.entity.OtpVerification;
-import com.ridesharing.repository.OtpVerificationRepository;
 
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.Random;
 
 @Service
-@Transactional
+@Slf4j
 public class OtpService {
 
-    private final OtpVerificationRepository otpRepository;
-    private final TwilioService twilioService;
+    private final OtpStore otpStore;
+    private final SmsDispatcher smsDispatcher;
 
     // OTP settings
     private static final int OTP_EXPIRY_MINUTES = 5;
     private static final int OTP_LENGTH = 6;
+    private static final SecureRandom RANDOM = new SecureRandom();
 
-    public OtpService(OtpVerificationRepository otpRepository, TwilioService twilioService) {
-        this.otpRepository = otpRepository;
-        this.twilioService = twilioService;
+    public OtpService(OtpStore otpStore, SmsDispatcher smsDispatcher) {
+        this.otpStore = otpStore;
+        this.smsDispatcher = smsDispatcher;
     }
 
     public String generateOtp() {
-        Random random = new Random();
         StringBuilder otp = new StringBuilder();
         
         for (int i = 0; i < OTP_LENGTH; i++) {
-            otp.append(random.nextInt(10));
+            otp.append(RANDOM.nextInt(10));
         }
         
         return otp.toString();
     }
 
-    public void generateAndSendOtp(String phoneNumber) {
-        // Delete any existing OTPs for this phone number
-        otpRepository.deleteByPhoneNumber(phoneNumber);
-
-        // Generate new OTP
+    // Returns the SMS delivery id, for looking the message up in GET /api/admin/sms-deliveries/{id}
+    public String generateAndSendOtp(String phoneNumber) {
+        // Generate new OTP; storing it replaces any earlier code for this phone number
         String otp = generateOtp();
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES);
-
-        // Save OTP to database
-        OtpVerification otpVerification = new OtpVerification(phoneNumber, otp, expiresAt);
-        otpRepository.save(otpVerification);
+        otpStore.issue(phoneNumber, otp, Duration.ofMinutes(OTP_EXPIRY_MINUTES));
 
         // For development - always log OTP to console
-        System.out.println("==============================================");
-        System.out.println("🔐 OTP FOR DEVELOPMENT");
-        System.out.println("📱 Phone: " + phoneNumber);
-        System.out.println("🔢 OTP: " + otp);
-        System.out.println("⏰ Expires: " + expiresAt);
-        System.out.println("==============================================");
-
-        // Try to send SMS, but don't fail if it doesn't work
-        try {
-            twilioService.sendOtp(phoneNumber, otp);
-            System.out.println("✅ SMS sent successfully via Twilio");
-        } catch (Exception e) {
-            System.err.println("❌ Twilio SMS failed (using console OTP): " + e.getMessage());
-            System.out.println("💡 Use the OTP printed above for testing");
-        }
+        log.info("OTP for development - phone: {}, OTP: {}, expires: {}", phoneNumber, otp, expiresAt);
+
+        // Sent by SmsDispatcher after commit, so the request never waits on the SMS provider
+        String message = String.format("Your RideSharing verification code is: %s. This code will expire in %d minutes.",
+                otp, OTP_EXPIRY_MINUTES);
+        String deliveryId = smsDispatcher.enqueueAfterCommit(phoneNumber, message);
+        log.debug("OTP SMS for {} queued as {}", phoneNumber, deliveryId);
+        return deliveryId;
     }
 
     public boolean verifyOtp(String phoneNumber, String otp) {
-        Optional<OtpVerification> otpVerificationOpt = otpRepository.findByPhoneNumberAndOtpAndIsUsedFalse(phoneNumber, otp);
-
-        if (otpVerificationOpt.isPresent()) {
-            OtpVerification otpVerification = otpVerificationOpt.get();
-            
-            if (otpVerification.isValid()) {
-                // Mark OTP as used
-                otpVerification.markAsUsed();
-                otpRepository.save(otpVerification);
-                return true;
-            }
-        }
-
-        return false;
+        return otpStore.consume(phoneNumber, otp);
     }
 
+    @Scheduled(fixedDelayString = "${app.otp.cleanup-ms:60000}")
     public void cleanupExpiredOtps() {
-        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
-    }
-
-    public boolean canSendOtp(String phoneNumber) {
-        // Limit OTP generation to prevent abuse
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        long otpCount = otpRepository.countByPhoneNumberAndCreatedAtAfter(phoneNumber, oneHourAgo);
-        
-        // Allow maximum 5 OTPs per hour
-        return otpCount < 5;
+        otpStore.purgeExpired();
     }
-}
\ No newline at end of file
+}
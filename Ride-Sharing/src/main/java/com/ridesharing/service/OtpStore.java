@@ -0,0 +1,18 @@
+package com.ridesharing.service;
+
+import java.time.Duration;
+
+/**
+ * Where issued OTP codes live until they are verified or expire. Issuing replaces any earlier code
+ * for the phone number, and a code can be consumed at most once.
+ */
+public interface OtpStore {
+
+    void issue(String phoneNumber, String otp, Duration ttl);
+
+    // True only for the one caller that consumes a matching, unexpired code
+    boolean consume(String phoneNumber, String otp);
+
+    // Drops expired codes; returns how many were removed
+    long purgeExpired();
+}
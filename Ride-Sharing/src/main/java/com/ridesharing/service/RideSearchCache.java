@@ -0,0 +1,84 @@
+package com.ridesharing.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ridesharing.cache.BoundedCache;
+import com.ridesharing.cache.CacheRegistry;
+import com.ridesharing.dto.RideSearchDto;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.util.TransactionHooks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Caches ride search results keyed by the normalized search request. Writes to a ride only
+ * evict the entries whose route/day filters could have matched that ride.
+ */
+@Component
+public class RideSearchCache {
+
+    private final boolean enabled;
+    private final BoundedCache<SearchKey, Object> cache;
+
+    public RideSearchCache(CacheRegistry cacheRegistry,
+                           @Value("${app.search.cache.enabled:true}") boolean enabled,
+                           @Value("${app.search.cache.max-size:1000}") int maxSize,
+                           @Value("${app.search.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = cacheRegistry.create("ride-search", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(RideSearchDto searchDto, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        return (T) cache.get(SearchKey.of(searchDto), key -> search.get());
+    }
+
+    public void invalidateAfterCommit(Ride ride) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> invalidate(ride));
+        }
+    }
+
+    public void invalidate(Ride ride) {
+        String source = RideSearchIndex.normalize(ride.getSource());
+        String destination = RideSearchIndex.normalize(ride.getDestination());
+        LocalDate day = ride.getDepartureDate() != null ? ride.getDepartureDate().toLocalDate() : null;
+        cache.invalidateIf(key -> key.couldMatch(source, destination, day));
+    }
+
+    record SearchKey(String source, String destination, LocalDate departureDay, Integer minSeats,
+                     BigDecimal maxPrice, String vehicleType, Integer page, Integer size, String sortBy,
+                     String sortDirection, Boolean cursorMode, String cursor) {
+
+        static SearchKey of(RideSearchDto dto) {
+            return new SearchKey(
+                    RideSearchIndex.normalize(dto.getSource()),
+                    RideSearchIndex.normalize(dto.getDestination()),
+                    dto.getDepartureDate() != null ? dto.getDepartureDate().toLocalDate() : null,
+                    dto.getMinSeats(),
+                    dto.getMaxPrice() != null ? dto.getMaxPrice().stripTrailingZeros() : null,
+                    RideSearchIndex.normalize(dto.getVehicleType()),
+                    dto.getPage(),
+                    dto.getSize(),
+                    dto.getSortBy(),
+                    dto.getSortDirection() != null ? dto.getSortDirection().toUpperCase(Locale.ROOT) : null,
+                    Boolean.TRUE.equals(dto.getCursorMode()),
+                    dto.getCursor());
+        }
+
+        // Conservative: seat, price and vehicle filters are ignored, so anything on the route/day is evicted
+        boolean couldMatch(String rideSource, String rideDestination, LocalDate rideDay) {
+            return (source == null || (rideSource != null && rideSource.contains(source)))
+                    && (destination == null || (rideDestination != null && rideDestination.contains(destination)))
+                    && (departureDay == null || departureDay.equals(rideDay));
+        }
+    }
+}
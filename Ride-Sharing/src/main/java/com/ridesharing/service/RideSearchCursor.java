@@ -0,0 +1,38 @@
+package com.ridesharing.service;
+
+import com.ridesharing.entity.Ride;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset position for ride search: the (departureDate, id) of the last ride on a page
+record RideSearchCursor(LocalDateTime departureDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static RideSearchCursor after(Ride ride) {
+        return new RideSearchCursor(ride.getDepartureDate(), ride.getId());
+    }
+
+    String encode() {
+        String raw = departureDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RideSearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new RideSearchCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.valueOf(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.ridesharing.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.ridesharing.dto.RideSearchDto;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.repository.RideRepository;
+import com.ridesharing.util.TransactionHooks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process index of bookable rides (ACTIVE, departing in the future, seats left).
+ * Rides are keyed by normalized source/destination trigrams and tokens and bucketed by departure day,
+ * so searches never have to scan the rides table with LIKE '%...%'.
+ * After a write commits, the ride is re-read from the database rather than taken from the writer's
+ * entity. Re-reads of the same ride are serialized on a per-ride lock stripe, so each starts after the
+ * previous one was applied and the last update always reflects the latest committed row, even when two
+ * writers' callbacks run out of order. The index lock itself is only held to apply the result.
+ */
+@Component
+@Slf4j
+public class RideSearchIndex {
+
+    private final RideRepository rideRepository;
+    private final TransactionTemplate reloadTransaction;
+    private final boolean enabled;
+
+    private final Map<Long, IndexedRide> rides = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> sourceTokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> destinationTokens = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<Long>> departureDays = new ConcurrentHashMap<>();
+    private final TrigramIndex sourceTrigrams = new TrigramIndex();
+    private final TrigramIndex destinationTrigrams = new TrigramIndex();
+
+    private static final int RELOAD_STRIPES = 64;
+
+    private final Object[] reloadLocks = new Object[RELOAD_STRIPES];
+
+    private volatile boolean ready = false;
+
+    public RideSearchIndex(RideRepository rideRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.rideRepository = rideRepository;
+        // After-commit callbacks still see the finished transaction's resources; the re-read needs its own
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        for (int i = 0; i < RELOAD_STRIPES; i++) {
+            reloadLocks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (enabled) {
+            rebuild(rideRepository.findBookableRides());
+        }
+    }
+
+    synchronized void rebuild(List<Ride> bookable) {
+        ready = false;
+        rides.clear();
+        sourceTokens.clear();
+        destinationTokens.clear();
+        departureDays.clear();
+        sourceTrigrams.clear();
+        destinationTrigrams.clear();
+
+        bookable.forEach(this::add);
+        ready = true;
+        log.info("Ride search index built with {} bookable rides", rides.size());
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // Write paths call these so the index follows every committed change to a ride
+
+    public void refreshAfterCommit(Ride ride) {
+        if (enabled) {
+            Long rideId = ride.getId();
+            TransactionHooks.afterCommit(() -> reload(rideId));
+        }
+    }
+
+    // Rides inserted by the committing transaction are fully known, so they go in as written, without
+    // a re-read per ride. One a later write has already indexed is left to that write's reload.
+    public void addAllAfterCommit(List<Ride> created) {
+        if (enabled) {
+            List<Ride> inserted = List.copyOf(created);
+            TransactionHooks.afterCommit(() -> addAll(inserted));
+        }
+    }
+
+    public void removeAfterCommit(Long rideId) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> remove(rideId));
+        }
+    }
+
+    public synchronized void refresh(Ride ride) {
+        removeInternal(ride.getId());
+        if (isBookable(ride, LocalDateTime.now())) {
+            add(ride);
+        }
+    }
+
+    synchronized void addAll(List<Ride> created) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Ride ride : created) {
+            if (!rides.containsKey(ride.getId()) && isBookable(ride, now)) {
+                add(ride);
+            }
+        }
+    }
+
+    public synchronized void remove(Long rideId) {
+        removeInternal(rideId);
+    }
+
+    // The ride's stripe is held across the read so re-reads of one ride (and the updates they apply)
+    // happen in commit order; other rides reload in parallel and searches never wait on the database
+    void reload(Long rideId) {
+        synchronized (reloadLocks[Math.floorMod(rideId.hashCode(), RELOAD_STRIPES)]) {
+            try {
+                Optional<Ride> current = reloadTransaction.execute(status -> rideRepository.findById(rideId));
+                if (current != null && current.isPresent()) {
+                    refresh(current.get());
+                } else {
+                    remove(rideId);
+                }
+            } catch (RuntimeException e) {
+                // Better to drop the ride from search than to keep serving a state we could not confirm
+                log.warn("Could not reload ride {} into the search index: {}", rideId, e.getMessage());
+                remove(rideId);
+            }
+        }
+    }
+
+    /**
+     * Answers a search from memory. Returns an empty Optional when the index cannot serve the
+     * request (not built yet, or an unsupported sort property) and the caller should use the database.
+     */
+    public Optional<Page<Long>> search(RideSearchDto searchDto) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        Comparator<IndexedRide> order = ordering(searchDto.getSortBy(), searchDto.getSortDirection());
+        if (order == null) {
+            return Optional.empty();
+        }
+
+        List<IndexedRide> matches = matching(searchDto);
+        matches.sort(order);
+
+        PageRequest pageable = PageRequest.of(searchDto.getPage(), searchDto.getSize());
+        List<Long> pageIds = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(IndexedRide::id)
+                .collect(Collectors.toList());
+
+        return Optional.of(new PageImpl<>(pageIds, pageable, matches.size()));
+    }
+
+    // Keyset variant: ids of up to `limit` matches ordered by (departureDate, id) strictly after the cursor
+    public Optional<List<Long>> searchAfter(RideSearchDto searchDto, RideSearchCursor after, int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        Comparator<IndexedRide> order = Comparator.comparing(IndexedRide::departureDate)
+                .thenComparing(IndexedRide::id);
+
+        List<Long> ids = matching(searchDto).stream()
+                .filter(r -> after == null
+                        || r.departureDate().isAfter(after.departureDate())
+                        || (r.departureDate().isEqual(after.departureDate()) && r.id() > after.id()))
+                .sorted(order)
+                .limit(limit)
+                .map(IndexedRide::id)
+                .collect(Collectors.toList());
+        return Optional.of(ids);
+    }
+
+    private List<IndexedRide> matching(RideSearchDto searchDto) {
+        LocalDateTime now = LocalDateTime.now();
+        evictPastDays(now.toLocalDate());
+        SearchCriteria criteria = SearchCriteria.from(searchDto);
+
+        Set<Long> candidates = null;
+        if (criteria.departureDay() != null) {
+            candidates = departureDays.getOrDefault(criteria.departureDay(), Collections.emptySet());
+        }
+        candidates = narrowBySubstring(candidates, sourceTrigrams, sourceTokens, criteria.source());
+        candidates = narrowBySubstring(candidates, destinationTrigrams, destinationTokens, criteria.destination());
+
+        Collection<IndexedRide> pool = candidates == null
+                ? rides.values()
+                : candidates.stream().map(rides::get).filter(r -> r != null).collect(Collectors.toList());
+
+        return pool.stream()
+                .filter(r -> criteria.matches(r, now))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    public int size() {
+        return rides.size();
+    }
+
+    private void add(Ride ride) {
+        IndexedRide indexed = IndexedRide.of(ride);
+        rides.put(indexed.id(), indexed);
+        for (String token : tokenize(indexed.source())) {
+            sourceTokens.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(indexed.id());
+        }
+        for (String token : tokenize(indexed.destination())) {
+            destinationTokens.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(indexed.id());
+        }
+        departureDays.computeIfAbsent(indexed.departureDate().toLocalDate(), k -> ConcurrentHashMap.newKeySet())
+                .add(indexed.id());
+        sourceTrigrams.add(postingId(indexed.id()), indexed.source());
+        destinationTrigrams.add(postingId(indexed.id()), indexed.destination());
+    }
+
+    private void removeInternal(Long rideId) {
+        IndexedRide existing = rides.remove(rideId);
+        if (existing == null) {
+            return;
+        }
+        for (String token : tokenize(existing.source())) {
+            removePosting(sourceTokens, token, rideId);
+        }
+        for (String token : tokenize(existing.destination())) {
+            removePosting(destinationTokens, token, rideId);
+        }
+        removePosting(departureDays, existing.departureDate().toLocalDate(), rideId);
+        sourceTrigrams.remove(postingId(rideId), existing.source());
+        destinationTrigrams.remove(postingId(rideId), existing.destination());
+    }
+
+    private static int postingId(Long rideId) {
+        return Math.toIntExact(rideId);
+    }
+
+    // Rides that departed without another write stay indexed until their day bucket is in the past
+    private void evictPastDays(LocalDate today) {
+        boolean stale = departureDays.keySet().stream().anyMatch(day -> day.isBefore(today));
+        if (!stale) {
+            return;
+        }
+        synchronized (this) {
+            List<LocalDate> pastDays = departureDays.keySet().stream()
+                    .filter(day -> day.isBefore(today))
+                    .collect(Collectors.toList());
+            for (LocalDate day : pastDays) {
+                Set<Long> ids = departureDays.get(day);
+                if (ids != null) {
+                    new ArrayList<>(ids).forEach(this::removeInternal);
+                }
+                departureDays.remove(day);
+            }
+        }
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, Long rideId) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(rideId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // Queries of at least three characters intersect trigram posting lists; shorter ones
+    // fall back to scanning the token dictionary
+    private static Set<Long> narrowBySubstring(Set<Long> current, TrigramIndex trigrams,
+                                               Map<String, Set<Long>> tokens, String query) {
+        int[] matches = trigrams.search(query);
+        if (matches == null) {
+            return narrow(current, tokenCandidates(tokens, query));
+        }
+        Set<Long> result = new HashSet<>();
+        if (current == null) {
+            for (int id : matches) {
+                result.add((long) id);
+            }
+        } else {
+            for (Long id : current) {
+                if (Arrays.binarySearch(matches, postingId(id)) >= 0) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    // A query substring can only match a ride whose token dictionary contains its longest token,
+    // so the candidates are the union of postings for every dictionary token containing it.
+    private static Set<Long> tokenCandidates(Map<String, Set<Long>> postings, String query) {
+        if (query == null) {
+            return null;
+        }
+        String longest = tokenize(query).stream()
+                .max(Comparator.comparingInt(String::length))
+                .orElse(null);
+        if (longest == null) {
+            return null;
+        }
+        Set<Long> result = new HashSet<>();
+        postings.forEach((token, ids) -> {
+            if (token.contains(longest)) {
+                result.addAll(ids);
+            }
+        });
+        return result;
+    }
+
+    private static Set<Long> narrow(Set<Long> current, Set<Long> next) {
+        if (next == null) {
+            return current;
+        }
+        if (current == null) {
+            return next;
+        }
+        Set<Long> smaller = current.size() <= next.size() ? current : next;
+        Set<Long> larger = smaller == current ? next : current;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    // Mirrors RideRepository.searchAvailableRides: the query always orders by departure date first,
+    // and the requested sort is appended after it.
+    private static Comparator<IndexedRide> ordering(String sortBy, String sortDirection) {
+        Comparator<IndexedRide> secondary = switch (sortBy == null ? "departureDate" : sortBy) {
+            case "departureDate" -> Comparator.comparing(IndexedRide::departureDate);
+            case "pricePerSeat" -> Comparator.comparing(IndexedRide::pricePerSeat);
+            case "availableSeats" -> Comparator.comparing(IndexedRide::availableSeats);
+            case "createdAt" -> Comparator.comparing(IndexedRide::createdAt,
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "id" -> Comparator.comparing(IndexedRide::id);
+            default -> null;
+        };
+        if (secondary == null) {
+            return null;
+        }
+        if ("DESC".equalsIgnoreCase(sortDirection)) {
+            secondary = secondary.reversed();
+        }
+        return Comparator.comparing(IndexedRide::departureDate)
+                .thenComparing(secondary)
+                .thenComparing(IndexedRide::id);
+    }
+
+    static boolean isBookable(Ride ride, LocalDateTime now) {
+        return ride.getId() != null
+                && ride.getStatus() == RideStatus.ACTIVE
+                && ride.getAvailableSeats() != null && ride.getAvailableSeats() > 0
+                && ride.getDepartureDate() != null && ride.getDepartureDate().isAfter(now);
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String normalized) {
+        if (!StringUtils.hasText(normalized)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // Immutable snapshot of the fields the search filters and sorts on
+    record IndexedRide(Long id, String source, String destination, LocalDateTime departureDate,
+                       Integer availableSeats, BigDecimal pricePerSeat, String vehicleType,
+                       LocalDateTime createdAt) {
+
+        static IndexedRide of(Ride ride) {
+            return new IndexedRide(
+                    ride.getId(),
+                    normalize(ride.getSource()),
+                    normalize(ride.getDestination()),
+                    ride.getDepartureDate(),
+                    ride.getAvailableSeats(),
+                    ride.getPricePerSeat(),
+                    normalize(ride.getVehicleType()),
+                    ride.getCreatedAt());
+        }
+    }
+
+    record SearchCriteria(String source, String destination, LocalDate departureDay, Integer minSeats,
+                          BigDecimal maxPrice, String vehicleType) {
+
+        static SearchCriteria from(RideSearchDto dto) {
+            return new SearchCriteria(
+                    normalize(dto.getSource()),
+                    normalize(dto.getDestination()),
+                    dto.getDepartureDate() != null ? dto.getDepartureDate().toLocalDate() : null,
+                    dto.getMinSeats(),
+                    dto.getMaxPrice(),
+                    normalize(dto.getVehicleType()));
+        }
+
+        boolean matches(IndexedRide ride, LocalDateTime now) {
+            if (!ride.departureDate().isAfter(now) || ride.availableSeats() <= 0) {
+                return false;
+            }
+            if (source != null && !ride.source().contains(source)) {
+                return false;
+            }
+            if (destination != null && !ride.destination().contains(destination)) {
+                return false;
+            }
+            if (departureDay != null && !ride.departureDate().toLocalDate().equals(departureDay)) {
+                return false;
+            }
+            if (minSeats != null && ride.availableSeats() < minSeats) {
+                return false;
+            }
+            if (maxPrice != null && ride.pricePerSeat().compareTo(maxPrice) > 0) {
+                return false;
+            }
+            if (vehicleType != null && (ride.vehicleType() == null || !ride.vehicleType().contains(vehicleType))) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.ridesharing.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ridesharing.dto.RecurringRidePostDto;
+import com.ridesharing.dto.RecurringRideSummaryDto;
+import com.ridesharing.dto.RideCancellationResultDto;
 import com.ridesharing.dto.RidePostDto;
 import com.ridesharing.dto.RideResponseDto;
 import com.ridesharing.dto.RideSearchDto;
+import com.ridesharing.dto.RideSearchSliceDto;
+import com.ridesharing.entity.Booking;
 import com.ridesharing.entity.DriverDetail;
 import com.ridesharing.entity.Ride;
 import com.ridesharing.entity.RideStatus;
@@ -19,9 +31,17 @@ import com.ridesharing.entity.UserRole;
 import com.ridesharing.repository.BookingRepository;
 import com.ridesharing.repository.DriverDetailRepository;
 import com.ridesharing.repository.RideRepository;
+import com.ridesharing.util.TransactionHooks;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,10 +53,72 @@ public class RideService {
     private final BookingRepository bookingRepository;
     private final DriverDetailRepository driverDetailRepository;
     private final UserService userService;
+    private final RideSearchIndex rideSearchIndex;
+    private final RideSearchCache rideSearchCache;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatInventory seatInventory;
+    private final EmailService emailService;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
 
     public RideResponseDto postRide(String phoneNumber, RidePostDto ridePostDto) {
         User driver = userService.getUserByPhoneNumber(phoneNumber);
-        
+        DriverDetail driverDetail = loadPostingDriverDetail(driver);
+
+        Ride ride = newRide(driver, driverDetail, ridePostDto.getSource(), ridePostDto.getDestination(),
+            ridePostDto.getDepartureDate(), ridePostDto.getAvailableSeats(), ridePostDto.getPricePerSeat(),
+            ridePostDto.getNotes());
+
+        Ride savedRide = rideRepository.save(ride);
+        rideChanged(savedRide);
+        return convertToResponseDto(savedRide);
+    }
+
+    /**
+     * Posts every occurrence of a weekly schedule in one transaction. The driver is checked once
+     * and the rides go out as one batched insert (pooled ids + hibernate.jdbc.batch_size).
+     */
+    public RecurringRideSummaryDto postRecurringRides(String phoneNumber, RecurringRidePostDto schedule) {
+        User driver = userService.getUserByPhoneNumber(phoneNumber);
+        DriverDetail driverDetail = loadPostingDriverDetail(driver);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Ride> rides = new ArrayList<>();
+        int skipped = 0;
+        for (LocalDate date = schedule.getStartDate(), end = date.plusWeeks(schedule.getWeeks());
+             date.isBefore(end); date = date.plusDays(1)) {
+            if (!schedule.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime departure = date.atTime(schedule.getDepartureTime());
+            if (!departure.isAfter(now)) {
+                skipped++;
+                continue;
+            }
+            rides.add(newRide(driver, driverDetail, schedule.getSource(), schedule.getDestination(),
+                departure, schedule.getAvailableSeats(), schedule.getPricePerSeat(), schedule.getNotes()));
+        }
+
+        if (rides.isEmpty()) {
+            throw new RuntimeException("No departures in this schedule are in the future");
+        }
+
+        List<Ride> savedRides = rideRepository.saveAll(rides);
+        // Fresh inserts need no after-commit re-read: the saved rows are handed to the index and inventory as is
+        rideSearchIndex.addAllAfterCommit(savedRides);
+        savedRides.forEach(rideSearchCache::invalidateAfterCommit);
+        seatInventory.seedAfterCommit(savedRides);
+
+        return new RecurringRideSummaryDto(
+            savedRides.size(),
+            skipped,
+            savedRides.get(0).getDepartureDate(),
+            savedRides.get(savedRides.size() - 1).getDepartureDate(),
+            savedRides.stream().map(Ride::getId).collect(Collectors.toList())
+        );
+    }
+
+    private DriverDetail loadPostingDriverDetail(User driver) {
         // Verify user is a driver
         if (!driver.getRole().equals(UserRole.DRIVER)) {
             throw new RuntimeException("Only drivers can post rides");
@@ -53,29 +135,51 @@ public class RideService {
         if (!driverDetail.getIsVerified()) {
             throw new RuntimeException("Your driver profile must be verified before posting rides");
         }
+        return driverDetail;
+    }
 
-        // Create ride with auto-filled vehicle details
+    private Ride newRide(User driver, DriverDetail driverDetail, String source, String destination,
+                         LocalDateTime departureDate, Integer seats, BigDecimal pricePerSeat, String notes) {
         Ride ride = new Ride();
         ride.setDriver(driver);
-        ride.setSource(ridePostDto.getSource());
-        ride.setDestination(ridePostDto.getDestination());
-        ride.setDepartureDate(ridePostDto.getDepartureDate());
-        ride.setAvailableSeats(ridePostDto.getAvailableSeats());
-        ride.setTotalSeats(ridePostDto.getAvailableSeats());
-        ride.setPricePerSeat(ridePostDto.getPricePerSeat());
-        ride.setNotes(ridePostDto.getNotes());
-        
+        ride.setSource(source);
+        ride.setDestination(destination);
+        ride.setDepartureDate(departureDate);
+        ride.setAvailableSeats(seats);
+        ride.setTotalSeats(seats);
+        ride.setPricePerSeat(pricePerSeat);
+        ride.setNotes(notes);
+
         // Auto-fill vehicle details from driver profile
         ride.setVehicleModel(driverDetail.getCarModel());
         ride.setVehicleColor(driverDetail.getCarColor());
         ride.setVehicleNumber(driverDetail.getCarNumber());
         ride.setVehicleType(determineVehicleType(driverDetail.getCarModel()));
-
-        Ride savedRide = rideRepository.save(ride);
-        return convertToResponseDto(savedRide);
+        return ride;
     }
 
+    // Searches run outside the class-level transaction so cache hits never borrow a connection
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "rides.search", extraTags = {"mode", "page"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public Page<RideResponseDto> searchRides(RideSearchDto searchDto) {
+        return rideSearchCache.get(searchDto,
+            () -> transactionTemplate.execute(status -> findRides(searchDto)));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "rides.search", extraTags = {"mode", "cursor"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public RideSearchSliceDto searchRidesByCursor(RideSearchDto searchDto) {
+        return rideSearchCache.get(searchDto,
+            () -> transactionTemplate.execute(status -> findRidesByCursor(searchDto)));
+    }
+
+    private Page<RideResponseDto> findRides(RideSearchDto searchDto) {
+        Optional<Page<Long>> indexed = rideSearchIndex.search(searchDto);
+        if (indexed.isPresent()) {
+            return loadIndexedPage(indexed.get());
+        }
+
         Sort sort = Sort.by(
             searchDto.getSortDirection().equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC,
             searchDto.getSortBy()
@@ -93,7 +197,65 @@ public class RideService {
             pageable
         );
 
-        return rides.map(this::convertToResponseDto);
+        return rides.map(RideService::convertToResponseDto);
+    }
+
+    private RideSearchSliceDto findRidesByCursor(RideSearchDto searchDto) {
+        RideSearchCursor after = RideSearchCursor.decode(searchDto.getCursor());
+        int size = searchDto.getSize();
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<Ride> rides;
+        Optional<List<Long>> indexed = rideSearchIndex.searchAfter(searchDto, after, size + 1);
+        if (indexed.isPresent()) {
+            rides = loadInOrder(indexed.get());
+        } else {
+            rides = rideRepository.searchAvailableRidesAfter(
+                searchDto.getSource(),
+                searchDto.getDestination(),
+                searchDto.getDepartureDate(),
+                searchDto.getMinSeats(),
+                searchDto.getMaxPrice(),
+                searchDto.getVehicleType(),
+                after != null ? after.departureDate() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1)
+            );
+        }
+
+        boolean hasNext = rides.size() > size;
+        List<Ride> page = hasNext ? rides.subList(0, size) : rides;
+        String nextCursor = hasNext ? RideSearchCursor.after(page.get(page.size() - 1)).encode() : null;
+
+        List<RideResponseDto> content = page.stream()
+                .map(RideService::convertToResponseDto)
+                .collect(Collectors.toList());
+        return new RideSearchSliceDto(content, content.size(), hasNext, nextCursor);
+    }
+
+    private Page<RideResponseDto> loadIndexedPage(Page<Long> rideIds) {
+        List<RideResponseDto> content = loadInOrder(rideIds.getContent()).stream()
+                .map(RideService::convertToResponseDto)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, rideIds.getPageable(), rideIds.getTotalElements());
+    }
+
+    // Rides are loaded by primary key in the order the index ranked them. The rows are authoritative:
+    // a hit that is no longer bookable (the index update for it is still pending) is dropped.
+    private List<Ride> loadInOrder(List<Long> rideIds) {
+        if (rideIds.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Ride> ridesById = rideRepository.findAllWithDriverByIdIn(rideIds).stream()
+                .filter(ride -> RideSearchIndex.isBookable(ride, now))
+                .collect(Collectors.toMap(Ride::getId, Function.identity()));
+
+        return rideIds.stream()
+                .map(ridesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     public List<RideResponseDto> getDriverRides(String phoneNumber) {
@@ -103,9 +265,9 @@ public class RideService {
             throw new RuntimeException("Only drivers can view their rides");
         }
 
-        List<Ride> rides = rideRepository.findByDriverOrderByDepartureDateDesc(driver);
+        List<Ride> rides = rideRepository.findWithDriverByDriverId(driver.getId());
         return rides.stream()
-                   .map(this::convertToResponseDto)
+                   .map(RideService::convertToResponseDto)
                    .collect(Collectors.toList());
     }
 
@@ -113,7 +275,7 @@ public class RideService {
         User driver = userService.getUserByPhoneNumber(phoneNumber);
         List<Ride> rides = rideRepository.findUpcomingRidesByDriver(driver);
         return rides.stream()
-                   .map(this::convertToResponseDto)
+                   .map(RideService::convertToResponseDto)
                    .collect(Collectors.toList());
     }
 
@@ -132,9 +294,54 @@ public class RideService {
             throw new RuntimeException("You can only update your own rides");
         }
 
-        ride.setStatus(status);
-        Ride updatedRide = rideRepository.save(ride);
-        return convertToResponseDto(updatedRide);
+        // Cancelling must also cancel the bookings and tell the passengers
+        if (status == RideStatus.CANCELLED) {
+            return cancelRide(phoneNumber, rideId).getRide();
+        }
+
+        rideRepository.updateStatus(rideId, status);
+        entityManager.refresh(ride);
+        rideChanged(ride);
+        return convertToResponseDto(ride);
+    }
+
+    /**
+     * Cancels the ride and all of its open bookings with set-based updates and queues one
+     * cancellation email per passenger in a single outbox batch. Cost is a fixed number of
+     * statements plus one batched insert, however many passengers the ride has.
+     */
+    public RideCancellationResultDto cancelRide(String phoneNumber, Long rideId) {
+        User driver = userService.getUserByPhoneNumber(phoneNumber);
+        Ride ride = rideRepository.findById(rideId)
+                .orElseThrow(() -> new RuntimeException("Ride not found"));
+
+        if (!ride.getDriver().getId().equals(driver.getId())) {
+            throw new RuntimeException("You can only update your own rides");
+        }
+
+        if (rideRepository.cancelIfOpen(rideId) == 0) {
+            throw new RuntimeException("Only active or full rides can be cancelled");
+        }
+
+        // The ride is CANCELLED and row-locked now, so no new booking can be added. The bookings are read
+        // FOR UPDATE: a plain read would use the snapshot from findById above and miss bookings committed
+        // since, which the UPDATE below still cancels.
+        List<Booking> openBookings = bookingRepository.findOpenBookingsWithPassenger(rideId);
+        int cancelled = bookingRepository.cancelOpenBookingsByRide(rideId, LocalDateTime.now());
+        int releasedSeats = openBookings.stream().mapToInt(Booking::getSeatsBooked).sum();
+        if (releasedSeats > 0) {
+            rideRepository.releaseSeats(rideId, releasedSeats);
+        }
+
+        entityManager.refresh(ride);
+        int queued = openBookings.isEmpty() ? 0 : emailService.queueBookingCancellationEmails(openBookings, ride, driver);
+        rideChanged(ride);
+        if (cancelled > 0) {
+            TransactionHooks.afterCommit(() -> meterRegistry.counter("bookings.transitions",
+                "status", "CANCELLED", "actor", "ride_cancelled").increment(cancelled));
+        }
+
+        return new RideCancellationResultDto(convertToResponseDto(ride), cancelled, releasedSeats, queued);
     }
 
     public void deleteRide(String phoneNumber, Long rideId) {
@@ -155,9 +362,19 @@ public class RideService {
         }
 
         rideRepository.delete(ride);
+        rideSearchIndex.removeAfterCommit(rideId);
+        rideSearchCache.invalidateAfterCommit(ride);
+        seatInventory.removeAfterCommit(rideId);
+    }
+
+    // Keeps the search index, result cache and seat inventory in step with committed ride changes
+    private void rideChanged(Ride ride) {
+        rideSearchIndex.refreshAfterCommit(ride);
+        rideSearchCache.invalidateAfterCommit(ride);
+        seatInventory.syncAfterCommit(ride);
     }
 
-    private RideResponseDto convertToResponseDto(Ride ride) {
+    static RideResponseDto convertToResponseDto(Ride ride) {
         RideResponseDto dto = new RideResponseDto();
         dto.setId(ride.getId());
         dto.setDriverName(ride.getDriver().getFirstName() + " " + ride.getDriver().getLastName());
@@ -184,7 +401,7 @@ public class RideService {
         return dto;
     }
 
-    private String determineVehicleType(String carModel) {
+    static String determineVehicleType(String carModel) {
         if (carModel == null) return "Car";
         
         String model = carModel.toLowerCase();
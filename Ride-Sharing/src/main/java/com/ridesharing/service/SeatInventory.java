@@ -0,0 +1,211 @@
+package com.ridesharing.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.repository.RideRepository;
+import com.ridesharing.util.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free per-ride seat counters used as an admission gate in front of the database. A booking
+ * first takes its seats here with a CAS; attempts on a sold-out ride are rejected without borrowing
+ * a connection or touching the ride row. The database stays authoritative: the conditional update
+ * in {@link RideRepository#reserveSeats} still decides, and seats are handed back here when it fails.
+ * Counters are per instance: cancellations on another instance never reach {@link #release}, so a
+ * counter can fall below the database. A rejection therefore re-reads the ride before it stands, at
+ * most once per ride every {@code reconcile-ms}, and counters are reseeded on every start.
+ */
+@Component
+@Slf4j
+public class SeatInventory {
+
+    public enum Admission {
+        ACQUIRED,
+        REJECTED,
+        // No counter for the ride (not seeded yet, or not bookable at startup): let the database decide
+        UNTRACKED
+    }
+
+    private static final int RELOAD_STRIPES = 64;
+
+    private final RideRepository rideRepository;
+    private final TransactionTemplate reloadTransaction;
+    private final boolean enabled;
+    private final long reconcileNanos;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Object[] reloadLocks = new Object[RELOAD_STRIPES];
+
+    public SeatInventory(RideRepository rideRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.booking.seat-inventory.enabled:true}") boolean enabled,
+                         @Value("${app.booking.seat-inventory.reconcile-ms:1000}") long reconcileMs) {
+        this.rideRepository = rideRepository;
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.reconcileNanos = TimeUnit.MILLISECONDS.toNanos(reconcileMs);
+        for (int i = 0; i < RELOAD_STRIPES; i++) {
+            reloadLocks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        slots.clear();
+        rideRepository.findBookableRides().forEach(this::sync);
+        log.info("Seat inventory seeded with {} rides", slots.size());
+    }
+
+    public Admission tryAcquire(Long rideId, int seats) {
+        Slot slot = enabled ? slots.get(rideId) : null;
+        if (slot == null) {
+            return Admission.UNTRACKED;
+        }
+        Admission admission = take(slot, seats);
+        if (admission == Admission.REJECTED && slot.reconcileDue(System.nanoTime(), reconcileNanos)) {
+            // Seats may have been freed on another instance; one caller per interval checks the row
+            reload(rideId);
+            slot = slots.get(rideId);
+            admission = slot == null ? Admission.UNTRACKED : take(slot, seats);
+        }
+        return admission;
+    }
+
+    private static Admission take(Slot slot, int seats) {
+        int available;
+        do {
+            available = slot.seats.get();
+            if (available < seats) {
+                return Admission.REJECTED;
+            }
+        } while (!slot.seats.compareAndSet(available, available - seats));
+        return Admission.ACQUIRED;
+    }
+
+    // Never above the ride's total, whatever order releases arrive in
+    public void release(Long rideId, int seats) {
+        Slot slot = slots.get(rideId);
+        if (slot != null) {
+            slot.seats.accumulateAndGet(seats, (available, released) -> Math.min(slot.totalSeats, available + released));
+        }
+    }
+
+    public void releaseAfterCommit(Long rideId, int seats) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> release(rideId, seats));
+        }
+    }
+
+    // Ride-level writes (post, status change) reset the counter to the committed row. The row is
+    // re-read after commit rather than taken from the writer's entity, which may already be stale.
+    public void syncAfterCommit(Ride ride) {
+        if (enabled) {
+            Long rideId = ride.getId();
+            TransactionHooks.afterCommit(() -> reload(rideId));
+        }
+    }
+
+    // New rides are seeded from the inserted rows themselves; a counter a later write already set is kept
+    public void seedAfterCommit(List<Ride> created) {
+        if (enabled) {
+            List<Ride> inserted = List.copyOf(created);
+            TransactionHooks.afterCommit(() -> inserted.forEach(ride -> {
+                Slot slot = slotFor(ride);
+                if (slot != null) {
+                    slots.putIfAbsent(ride.getId(), slot);
+                }
+            }));
+        }
+    }
+
+    public void removeAfterCommit(Long rideId) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> slots.remove(rideId));
+        }
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    // Departed rides can no longer be booked; drop their counters
+    @Scheduled(fixedDelayString = "${app.booking.seat-inventory.evict-ms:3600000}")
+    public void evictDeparted() {
+        LocalDateTime now = LocalDateTime.now();
+        slots.values().removeIf(slot -> slot.departureDate.isBefore(now));
+    }
+
+    // Serialized per ride (on a lock stripe) so a slower reload can never overwrite the result of a later one
+    void reload(Long rideId) {
+        synchronized (reloadLocks[Math.floorMod(rideId.hashCode(), RELOAD_STRIPES)]) {
+            try {
+                Optional<Ride> current = reloadTransaction.execute(status -> rideRepository.findById(rideId));
+                if (current != null && current.isPresent()) {
+                    sync(current.get());
+                } else {
+                    slots.remove(rideId);
+                }
+            } catch (RuntimeException e) {
+                // Untracked rides are left to the database, which is always correct
+                log.warn("Could not reload seat counter for ride {}: {}", rideId, e.getMessage());
+                slots.remove(rideId);
+            }
+        }
+    }
+
+    void sync(Ride ride) {
+        if (ride.getId() == null) {
+            return;
+        }
+        Slot slot = slotFor(ride);
+        if (slot != null) {
+            slots.put(ride.getId(), slot);
+        } else {
+            slots.remove(ride.getId());
+        }
+    }
+
+    // Null when the ride cannot be booked (closed, departed, or not saved yet)
+    private static Slot slotFor(Ride ride) {
+        boolean open = ride.getStatus() == RideStatus.ACTIVE || ride.getStatus() == RideStatus.FULL;
+        if (ride.getId() == null || !open || ride.getDepartureDate() == null
+                || !ride.getDepartureDate().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        int seats = ride.getStatus() == RideStatus.FULL ? 0 : Math.max(0, ride.getAvailableSeats());
+        return new Slot(new AtomicInteger(seats), ride.getTotalSeats(), ride.getDepartureDate(),
+                new AtomicLong(System.nanoTime()));
+    }
+
+    private record Slot(AtomicInteger seats, int totalSeats, LocalDateTime departureDate, AtomicLong reconciledAt) {
+
+        // True for exactly one caller once the interval has passed since the slot was last read from the row
+        boolean reconcileDue(long now, long intervalNanos) {
+            long last = reconciledAt.get();
+            return now - last >= intervalNanos && reconciledAt.compareAndSet(last, now);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ridesharing.cache.BoundedCache;
+import com.ridesharing.cache.CacheRegistry;
+import com.ridesharing.util.TransactionHooks;
+import com.ridesharing.util.WorkerThreads;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends SMS off the request thread. Messages go into a bounded queue drained by a few workers; a
+ * failed send is retried with exponential backoff up to a maximum number of attempts. When the queue
+ * is full the message is dropped rather than blocking the caller. The latest status of each delivery
+ * is kept in memory for a while so it can be looked up by id.
+ */
+@Component
+@Slf4j
+public class SmsDispatcher {
+
+    public enum Status { QUEUED, SENDING, RETRYING, SENT, FAILED, DROPPED }
+
+    private final SmsGateway gateway;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<SmsJob> queue;
+    private final BoundedCache<String, SmsDelivery> deliveries;
+    private final BoundedCache<String, String> latestByPhone;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private volatile boolean running = true;
+
+    public SmsDispatcher(SmsGateway gateway,
+                         MeterRegistry meterRegistry,
+                         CacheRegistry cacheRegistry,
+                         @Value("${app.sms.queue.capacity:1000}") int capacity,
+                         @Value("${app.sms.workers:2}") int workerCount,
+                         @Value("${app.sms.max-attempts:3}") int maxAttempts,
+                         @Value("${app.sms.initial-backoff-ms:2000}") long initialBackoffMillis,
+                         @Value("${app.sms.status.max-size:10000}") int statusMaxSize,
+                         @Value("${app.sms.status.ttl-minutes:60}") long statusTtlMinutes,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.gateway = gateway;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.deliveries = cacheRegistry.create("sms-deliveries", statusMaxSize, Duration.ofMinutes(statusTtlMinutes));
+        this.latestByPhone = cacheRegistry.create("sms-deliveries-by-phone", statusMaxSize, Duration.ofMinutes(statusTtlMinutes));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+
+        int count = Math.max(1, workerCount);
+        this.workers = Executors.newFixedThreadPool(count, WorkerThreads.factory("sms-worker-", virtualThreads));
+        for (int i = 0; i < count; i++) {
+            workers.submit(this::drain);
+        }
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory("sms-retry-", false));
+
+        Gauge.builder("sms.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        log.info("SMS dispatcher started with gateway '{}', {} workers, queue capacity {}", gateway.name(), count, capacity);
+    }
+
+    /**
+     * Queues the message once the current transaction commits (immediately when there is none) and
+     * returns the delivery id. Never blocks on the provider. Nothing is recorded for a transaction
+     * that rolls back, so its id is never found.
+     */
+    public String enqueueAfterCommit(String phoneNumber, String body) {
+        SmsJob job = new SmsJob(UUID.randomUUID().toString(), phoneNumber, body, 1);
+        TransactionHooks.afterCommit(() -> {
+            record(job, Status.QUEUED, null, null);
+            latestByPhone.put(phoneNumber, job.id());
+            offer(job);
+        });
+        return job.id();
+    }
+
+    public Optional<SmsDelivery> status(String deliveryId) {
+        return Optional.ofNullable(deliveries.get(deliveryId));
+    }
+
+    // The most recent delivery to the phone number that is still held
+    public Optional<SmsDelivery> latestForPhone(String phoneNumber) {
+        return Optional.ofNullable(latestByPhone.get(phoneNumber)).flatMap(this::status);
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void offer(SmsJob job) {
+        if (!queue.offer(job)) {
+            record(job, Status.DROPPED, null, "SMS queue full");
+            count("dropped");
+            log.warn("SMS queue full, dropped message {} to {}", job.id(), job.phoneNumber());
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            SmsJob job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            deliver(job);
+        }
+    }
+
+    void deliver(SmsJob job) {
+        record(job, Status.SENDING, null, null);
+        try {
+            String providerId = gateway.send(job.phoneNumber(), job.body());
+            record(job, Status.SENT, providerId, null);
+            count("sent");
+        } catch (RuntimeException e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (job.attempt() >= maxAttempts) {
+                record(job, Status.FAILED, null, error);
+                count("failed");
+                log.error("Giving up on SMS {} to {} after {} attempts: {}", job.id(), job.phoneNumber(), job.attempt(), error);
+                return;
+            }
+            Duration backoff = backoff(job.attempt());
+            record(job, Status.RETRYING, null, error);
+            count("retry");
+            log.warn("SMS {} to {} failed (attempt {}), retrying in {}ms: {}", job.id(), job.phoneNumber(),
+                    job.attempt(), backoff.toMillis(), error);
+            SmsJob next = new SmsJob(job.id(), job.phoneNumber(), job.body(), job.attempt() + 1);
+            retryScheduler.schedule(() -> offer(next), backoff.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // initialBackoff * 2^(attempt - 1)
+    Duration backoff(int attempt) {
+        return initialBackoff.multipliedBy(1L << Math.min(Math.max(attempt - 1, 0), 20));
+    }
+
+    private void record(SmsJob job, Status status, String providerMessageId, String error) {
+        deliveries.put(job.id(), new SmsDelivery(job.id(), job.phoneNumber(), gateway.name(), status, job.attempt(),
+                providerMessageId, error, Instant.now()));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("sms.deliveries", "provider", gateway.name(), "outcome", outcome).increment();
+    }
+
+    record SmsJob(String id, String phoneNumber, String body, int attempt) {
+    }
+
+    public record SmsDelivery(String id, String phoneNumber, String provider, Status status, int attempts,
+                              String providerMessageId, String lastError, Instant updatedAt) {
+    }
+}
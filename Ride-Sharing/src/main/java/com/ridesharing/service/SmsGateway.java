@@ -0,0 +1,14 @@
+package com.ridesharing.service;
+
+/**
+ * A provider that can deliver one SMS. Implementations enforce their own connect/read timeouts and
+ * throw when the provider did not accept the message, so {@link SmsDispatcher} can retry it.
+ * Selected with {@code app.sms.gateway} (twilio or stub).
+ */
+public interface SmsGateway {
+
+    String name();
+
+    // Returns the provider's message id
+    String send(String phoneNumber, String body);
+}
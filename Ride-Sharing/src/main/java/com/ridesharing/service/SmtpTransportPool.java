@@ -0,0 +1,267 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a few authenticated SMTP connections open and reuses them, so a send no longer pays the
+ * TCP + STARTTLS + AUTH handshake that {@link JavaMailSender#send} does per call. A batch of
+ * messages goes over one connection; a connection that drops mid-batch is discarded and the rest of
+ * the batch continues on a fresh one. Falls back to plain {@code JavaMailSender.send} when pooling is
+ * disabled or the sender has no SMTP host (e.g. the fake sink).
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+    private final JavaMailSenderImpl smtpSender;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    private final LongAdder handshakes = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.email.smtp-pool.enabled:true}") boolean enabled,
+                             @Value("${app.email.smtp-pool.max-size:3}") int maxSize,
+                             @Value("${app.email.smtp-pool.idle-timeout-seconds:60}") long idleTimeoutSeconds,
+                             @Value("${app.email.smtp-pool.borrow-timeout-ms:10000}") long borrowTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.smtpSender = enabled && mailSender instanceof JavaMailSenderImpl impl && impl.getHost() != null
+                ? impl : null;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        registerMetrics(meterRegistry);
+    }
+
+    // The same numbers as stats(), for the Prometheus scrape
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("mail.smtp.pool.connections", this, pool -> pool.maxSize - pool.permits.availablePermits())
+                .tag("state", "in_use")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.connections", idle, LinkedBlockingDeque::size)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.max.size", this, pool -> pool.maxSize)
+                .register(meterRegistry);
+        FunctionCounter.builder("mail.smtp.handshakes", handshakes, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("mail.smtp.messages", messagesSent, LongAdder::sum)
+                .tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("mail.smtp.messages", sendFailures, LongAdder::sum)
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("mail.smtp.batches", batches, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    public boolean isPooling() {
+        return smtpSender != null;
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        Exception failure = send(List.of(message)).get(0);
+        if (failure instanceof MessagingException messagingException) {
+            throw messagingException;
+        }
+        if (failure != null) {
+            throw new MessagingException(failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Sends the messages in order over pooled connections. The result is index-aligned with the
+     * input: null for a message that was sent, otherwise the exception it failed with.
+     */
+    public List<Exception> send(List<MimeMessage> messages) {
+        batches.increment();
+        Exception[] results = new Exception[messages.size()];
+        if (!isPooling()) {
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    mailSender.send(messages.get(i));
+                    messagesSent.increment();
+                } catch (Exception e) {
+                    sendFailures.increment();
+                    results[i] = e;
+                }
+            }
+            return Arrays.asList(results);
+        }
+
+        int next = 0;
+        while (next < messages.size()) {
+            PooledTransport pooled;
+            try {
+                pooled = borrow();
+            } catch (MessagingException e) {
+                for (int i = next; i < messages.size(); i++) {
+                    sendFailures.increment();
+                    results[i] = e;
+                }
+                break;
+            }
+
+            boolean healthy = true;
+            try {
+                while (next < messages.size()) {
+                    MimeMessage message = messages.get(next);
+                    try {
+                        sendOne(pooled.transport, message);
+                        messagesSent.increment();
+                    } catch (MessagingException e) {
+                        sendFailures.increment();
+                        results[next] = e;
+                        if (!pooled.transport.isConnected()) {
+                            healthy = false;
+                        }
+                    }
+                    next++;
+                    if (!healthy) {
+                        break;
+                    }
+                }
+            } finally {
+                giveBack(pooled, healthy);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public SmtpPoolStats stats() {
+        int idleCount = idle.size();
+        return new SmtpPoolStats(isPooling(), maxSize, maxSize - permits.availablePermits(), idleCount,
+                handshakes.sum(), messagesSent.sum(), sendFailures.sum(), batches.sum());
+    }
+
+    // Servers drop idle sessions after a while; close ours first instead of failing the next send
+    @Scheduled(fixedDelayString = "${app.email.smtp-pool.evict-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledTransport> kept = new ArrayList<>();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (now - pooled.lastUsedAt > idleTimeoutMillis || !pooled.transport.isConnected()) {
+                close(pooled);
+            } else {
+                kept.add(pooled);
+            }
+        }
+        kept.forEach(idle::offerLast);
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            long now = System.currentTimeMillis();
+            // Most recently used first: the connection least likely to have been dropped by the server
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.transport.isConnected() && now - pooled.lastUsedAt <= idleTimeoutMillis) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void giveBack(PooledTransport pooled, boolean healthy) {
+        if (healthy && pooled.transport.isConnected()) {
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            close(pooled);
+        }
+        permits.release();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Session session = smtpSender.getSession();
+        Transport transport = session.getTransport(smtpSender.getProtocol() != null ? smtpSender.getProtocol() : "smtp");
+        transport.connect(smtpSender.getHost(), smtpSender.getPort(), smtpSender.getUsername(), smtpSender.getPassword());
+        handshakes.increment();
+        log.debug("Opened SMTP connection to {}:{}", smtpSender.getHost(), smtpSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private static void sendOne(Transport transport, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    public record SmtpPoolStats(boolean pooling, int maxSize, int inUse, int idle, long handshakes,
+                                long messagesSent, long sendFailures, long batches) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.ridesharing.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Keeps messages in memory instead of calling a provider (offline development and tests)
+@Component
+@ConditionalOnProperty(name = "app.sms.gateway", havingValue = "stub")
+@Slf4j
+public class StubSmsGateway implements SmsGateway {
+
+    private final List<SentSms> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToSimulate = new AtomicInteger();
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public String send(String phoneNumber, String body) {
+        if (failuresToSimulate.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new RuntimeException("Simulated SMS provider failure");
+        }
+        String id = "stub-" + UUID.randomUUID();
+        sent.add(new SentSms(id, phoneNumber, body));
+        log.info("Stub SMS to {}: {}", phoneNumber, body);
+        return id;
+    }
+
+    // The next n sends throw, to exercise retries
+    public void failNext(int n) {
+        failuresToSimulate.set(n);
+    }
+
+    public List<SentSms> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+        failuresToSimulate.set(0);
+    }
+
+    public record SentSms(String id, String phoneNumber, String body) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.ridesharing.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram posting-list index for substring matching. Every three-character window of the indexed
+ * text maps to a sorted int array of document ids, so a substring query becomes an intersection
+ * of the posting lists of its own trigrams. Matches are candidates only: two trigrams can occur in
+ * a document without being adjacent, so callers still confirm with {@code contains}.
+ */
+public class TrigramIndex {
+
+    static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(int id, String text) {
+        Set<Long> grams = trigrams(text);
+        lock.writeLock().lock();
+        try {
+            for (Long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id, String text) {
+        Set<Long> grams = trigrams(text);
+        lock.writeLock().lock();
+        try {
+            for (Long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the sorted ids whose text contains every trigram of the query, or null when the query
+     * is shorter than a trigram and the index cannot narrow the search.
+     */
+    public int[] search(String query) {
+        Set<Long> grams = trigrams(query);
+        if (grams.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(grams.size());
+            for (Long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            // Intersect smallest first so the working set only ever shrinks
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int length = result.length;
+            for (int i = 1; i < lists.size() && length > 0; i++) {
+                length = intersect(result, length, lists.get(i));
+            }
+            return length == result.length ? result : Arrays.copyOf(result, length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the ids of result[0..length) that also appear in the list, in place; returns the new length
+    private static int intersect(int[] result, int length, PostingList list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < length; i++) {
+            int pos = Arrays.binarySearch(list.ids, from, list.size, result[i]);
+            if (pos >= 0) {
+                result[kept++] = result[i];
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= list.size) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    static Set<Long> trigrams(String text) {
+        if (text == null || text.length() < GRAM) {
+            return Set.of();
+        }
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    // Sorted, duplicate-free primitive id list
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
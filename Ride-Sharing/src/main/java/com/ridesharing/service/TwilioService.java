@@ -1,48 +1,69 @@
 package com.ridesharing.service;
 
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import com.ridesharing.config.TwilioConfig;
 
+// Twilio's default HTTP client waits on the socket indefinitely; a stuck call would tie up an SMS worker
 @Service
-public class TwilioService {
+@ConditionalOnProperty(name = "app.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+@Slf4j
+public class TwilioService implements SmsGateway {
 
     private final TwilioConfig twilioConfig;
+    private final RequestConfig requestConfig;
+    private volatile TwilioRestClient client;
 
-    public TwilioService(TwilioConfig twilioConfig) {
+    public TwilioService(TwilioConfig twilioConfig,
+                         @Value("${app.sms.twilio.connect-timeout-ms:2000}") int connectTimeoutMillis,
+                         @Value("${app.sms.twilio.read-timeout-ms:5000}") int readTimeoutMillis) {
         this.twilioConfig = twilioConfig;
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .build();
     }
 
-    public void sendOtp(String phoneNumber, String otp) {
-        try {
-            String messageBody = String.format("Your RideSharing verification code is: %s. This code will expire in 5 minutes.", otp);
-            
-            Message message = Message.creator(
-                    new PhoneNumber(phoneNumber),
-                    new PhoneNumber(twilioConfig.getFromNumber()),
-                    messageBody
-            ).create();
-
-            System.out.println("OTP sent successfully. Message SID: " + message.getSid());
-        } catch (Exception e) {
-            System.err.println("Failed to send OTP: " + e.getMessage());
-            // In production, you might want to throw a custom exception or handle this differently
-        }
+    @Override
+    public String name() {
+        return "twilio";
+    }
+
+    @Override
+    @Timed(value = "sms.provider.send", extraTags = {"provider", "twilio"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public String send(String phoneNumber, String body) {
+        Message message = Message.creator(
+                new PhoneNumber(phoneNumber),
+                new PhoneNumber(twilioConfig.getFromNumber()),
+                body
+        ).create(client());
+
+        log.info("SMS sent successfully to: {}, Message SID: {}", phoneNumber, message.getSid());
+        return message.getSid();
     }
 
-    public void sendSms(String phoneNumber, String message) {
-        try {
-            Message.creator(
-                    new PhoneNumber(phoneNumber),
-                    new PhoneNumber(twilioConfig.getFromNumber()),
-                    message
-            ).create();
-
-            System.out.println("SMS sent successfully to: " + phoneNumber);
-        } catch (Exception e) {
-            System.err.println("Failed to send SMS: " + e.getMessage());
+    private TwilioRestClient client() {
+        TwilioRestClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                if (client == null) {
+                    client = new TwilioRestClient.Builder(twilioConfig.getAccountSid(), twilioConfig.getAuthToken())
+                            .httpClient(new NetworkHttpClient(requestConfig))
+                            .build();
+                }
+                current = client;
+            }
         }
+        return current;
     }
-}
\ No newline at end of file
+}
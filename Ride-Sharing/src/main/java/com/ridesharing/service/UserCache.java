@@ -0,0 +1,95 @@
+package com.ridesharing.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ridesharing.cache.BoundedCache;
+import com.ridesharing.cache.CacheRegistry;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.util.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of user identity keyed by phone number and by id. Entries are immutable
+ * snapshots without the password hash; every read hands out a fresh detached {@link User}, so
+ * callers can never mutate shared state and the copy is only good for reads and as an association.
+ */
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final BoundedCache<String, CachedUser> byPhoneNumber;
+    private final BoundedCache<Long, CachedUser> byId;
+
+    public UserCache(CacheRegistry cacheRegistry,
+                     @Value("${app.user.cache.enabled:true}") boolean enabled,
+                     @Value("${app.user.cache.max-size:10000}") int maxSize,
+                     @Value("${app.user.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.byPhoneNumber = cacheRegistry.create("users-by-phone", maxSize, Duration.ofSeconds(ttlSeconds));
+        this.byId = cacheRegistry.create("users-by-id", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public Optional<User> getByPhoneNumber(String phoneNumber, Supplier<Optional<User>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedUser cached = byPhoneNumber.get(phoneNumber, key -> load(loader));
+        return Optional.ofNullable(cached).map(CachedUser::toUser);
+    }
+
+    public Optional<User> getById(Long userId, Supplier<Optional<User>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedUser cached = byId.get(userId, key -> load(loader));
+        return Optional.ofNullable(cached).map(CachedUser::toUser);
+    }
+
+    public void invalidateAfterCommit(User user) {
+        if (enabled) {
+            Long id = user.getId();
+            String phoneNumber = user.getPhoneNumber();
+            TransactionHooks.afterCommit(() -> {
+                byId.invalidate(id);
+                byPhoneNumber.invalidate(phoneNumber);
+            });
+        }
+    }
+
+    private static CachedUser load(Supplier<Optional<User>> loader) {
+        return loader.get().map(CachedUser::from).orElse(null);
+    }
+
+    record CachedUser(Long id, String firstName, String lastName, String phoneNumber, String email,
+                      UserRole role, Boolean isVerified, Boolean isActive, String profilePicture,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static CachedUser from(User user) {
+            return new CachedUser(user.getId(), user.getFirstName(), user.getLastName(), user.getPhoneNumber(),
+                    user.getEmail(), user.getRole(), user.getIsVerified(), user.getIsActive(),
+                    user.getProfilePicture(), user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setPhoneNumber(phoneNumber);
+            user.setEmail(email);
+            user.setRole(role);
+            user.setIsVerified(isVerified);
+            user.setIsActive(isActive);
+            user.setProfilePicture(profilePicture);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            return user;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.ridesharing.entity.User;
 import com.ridesharing.entity.UserRole;
 import com.ridesharing.exception.UserNotFoundException;
 import com.ridesharing.repository.UserRepository;
+import com.ridesharing.security.RevokedUserRegistry;
 import com.ridesharing.security.UserPrincipal;
 
 import java.util.List;
@@ -22,10 +23,15 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final UserCache userCache;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       RevokedUserRegistry revokedUserRegistry, UserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.revokedUserRegistry = revokedUserRegistry;
+        this.userCache = userCache;
     }
 
     @Override
@@ -50,23 +56,30 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
 
+    // Served from the user cache: a detached copy without the password, fine for reads and associations
     public User getUserByPhoneNumber(String phoneNumber) {
-        return userRepository.findByPhoneNumber(phoneNumber)
+        return userCache.getByPhoneNumber(phoneNumber, () -> userRepository.findByPhoneNumber(phoneNumber))
                 .orElseThrow(() -> new UserNotFoundException("phoneNumber", phoneNumber));
     }
 
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.getById(userId, () -> userRepository.findById(userId))
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
+    // Write paths always modify the managed entity, never a cached copy
+    private User loadUserByPhoneNumber(String phoneNumber) {
+        return userRepository.findByPhoneNumber(phoneNumber)
+                .orElseThrow(() -> new UserNotFoundException("phoneNumber", phoneNumber));
+    }
+
     public UserProfileDto getUserProfile(String phoneNumber) {
         User user = getUserByPhoneNumber(phoneNumber);
         return new UserProfileDto(user.getFirstName(), user.getLastName(), user.getEmail(), user.getProfilePicture());
     }
 
     public UserProfileDto updateUserProfile(String phoneNumber, UserProfileDto profileDto) {
-        User user = getUserByPhoneNumber(phoneNumber);
+        User user = loadUserByPhoneNumber(phoneNumber);
         
         if (profileDto.getFirstName() != null) {
             user.setFirstName(profileDto.getFirstName());
@@ -82,14 +95,18 @@ public class UserService implements UserDetailsService {
         }
 
         User updatedUser = userRepository.save(user);
+        userCache.invalidateAfterCommit(updatedUser);
         return new UserProfileDto(updatedUser.getFirstName(), updatedUser.getLastName(), 
                                  updatedUser.getEmail(), updatedUser.getProfilePicture());
     }
 
     public void deleteUser(Long userId) {
-        User user = getUserById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
         user.setIsActive(false);
         userRepository.save(user);
+        userCache.invalidateAfterCommit(user);
+        revokedUserRegistry.revokeAfterCommit(userId);
     }
 
     public List<User> getAllUsers() {
@@ -104,9 +121,12 @@ public class UserService implements UserDetailsService {
         return userRepository.existsByEmail(email);
     }
 
-    public void verifyUser(String phoneNumber) {
-        User user = getUserByPhoneNumber(phoneNumber);
+    // Returns the updated entity: the cache still holds the unverified copy until this transaction commits
+    public User verifyUser(String phoneNumber) {
+        User user = loadUserByPhoneNumber(phoneNumber);
         user.setIsVerified(true);
-        userRepository.save(user);
+        User verifiedUser = userRepository.save(user);
+        userCache.invalidateAfterCommit(verifiedUser);
+        return verifiedUser;
     }
 }
\ No newline at end of file
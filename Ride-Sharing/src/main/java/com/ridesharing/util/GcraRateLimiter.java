@@ -0,0 +1,101 @@
+package com.ridesharing.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key token bucket in its GCRA form: each key holds one theoretical arrival time, and admitting a
+ * request is a single atomic compute that moves it forward by one emission interval. Allows
+ * {@code capacity} requests in a burst, refilled evenly over {@code period}. No I/O.
+ */
+public final class GcraRateLimiter {
+
+    private final String name;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final Map<String, Long> arrivals = new ConcurrentHashMap<>();
+
+    public GcraRateLimiter(String name, int capacity, Duration period, int maxKeys) {
+        if (capacity < 1 || period.isNegative() || period.isZero() || maxKeys < 1) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' needs a positive capacity, period and key limit");
+        }
+        this.name = name;
+        this.emissionIntervalNanos = period.toNanos() / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 when admitted, otherwise how long (in millis, at least 1)
+     * until a token is available. A new key arriving while maxKeys are tracked makes room first, so a
+     * flood of fresh keys cannot lock out callers the limiter has not seen yet.
+     */
+    public long tryAcquire(String key) {
+        if (arrivals.size() >= maxKeys && !arrivals.containsKey(key)) {
+            makeRoom();
+        }
+        long[] wait = new long[1];
+        // compute runs under the key's bin lock, so a concurrent eviction either happens before (and the
+        // key starts from a full bucket, as it would anyway) or after (and sees the charged arrival time)
+        arrivals.compute(key, (k, tat) -> {
+            long now = System.nanoTime();
+            long start = tat == null || tat - now < 0 ? now : tat;
+            wait[0] = start - now - burstToleranceNanos;
+            return wait[0] > 0 ? tat : start + emissionIntervalNanos;
+        });
+        return wait[0] > 0 ? toRetryMillis(wait[0]) : 0;
+    }
+
+    // Drops keys whose bucket has refilled completely; they behave exactly like unseen keys
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, Long> entry : arrivals.entrySet()) {
+            // remove(key, value) skips a key that was charged since it was read, so no bucket is reset mid-use
+            if (entry.getValue() - now <= 0 && arrivals.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    /**
+     * Frees a tenth of the key space so the scan is paid once per maxKeys / 10 new keys: idle keys go
+     * first, then the ones whose buckets are closest to full again, which lose the least by restarting.
+     */
+    private synchronized void makeRoom() {
+        if (arrivals.size() < maxKeys) {
+            return;
+        }
+        evictIdle();
+        int excess = arrivals.size() - (maxKeys - Math.max(1, maxKeys / 10));
+        if (excess <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<Map.Entry<String, Long>> oldest = arrivals.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(entry -> entry.getValue() - now))
+                .limit(excess)
+                .toList();
+        for (Map.Entry<String, Long> entry : oldest) {
+            arrivals.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static long toRetryMillis(long nanos) {
+        return Math.max(1, Duration.ofNanos(nanos).toMillis());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ridesharing.util;
+
+import java.util.concurrent.ThreadFactory;
+
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    // Threads for the app's own background executors, following spring.threads.virtual.enabled like
+    // Tomcat and the scheduler do. Platform threads are daemons so they never hold up shutdown.
+    public static ThreadFactory factory(String namePrefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(namePrefix, 1).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix, 1).daemon(true).factory();
+    }
+}
@@ -0,0 +1,105 @@
+-- Baseline: the schema previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate), so this only runs on empty ones.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name      VARCHAR(50)  NOT NULL,
+    last_name       VARCHAR(50)  NOT NULL,
+    phone_number    VARCHAR(20)  NOT NULL,
+    email           VARCHAR(100) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    role            ENUM('USER', 'DRIVER') NOT NULL,
+    is_verified     BIT(1)       NOT NULL,
+    is_active       BIT(1)       NOT NULL,
+    profile_picture VARCHAR(255),
+    created_at      DATETIME(6)  NOT NULL,
+    updated_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_phone_number UNIQUE (phone_number),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS admins (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(50)  NOT NULL,
+    last_name  VARCHAR(50)  NOT NULL,
+    is_active  BIT(1)       NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6),
+    last_login DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admins_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS driver_details (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT       NOT NULL,
+    license_number   VARCHAR(50)  NOT NULL,
+    license_expiry   DATETIME(6),
+    car_number       VARCHAR(20)  NOT NULL,
+    car_model        VARCHAR(100) NOT NULL,
+    car_color        VARCHAR(50),
+    car_year         INT,
+    insurance_number VARCHAR(100),
+    insurance_expiry DATETIME(6),
+    is_verified      BIT(1)       NOT NULL,
+    created_at       DATETIME(6)  NOT NULL,
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_driver_details_user UNIQUE (user_id),
+    CONSTRAINT uk_driver_details_license UNIQUE (license_number),
+    CONSTRAINT uk_driver_details_car UNIQUE (car_number),
+    CONSTRAINT fk_driver_details_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS rides (
+    id              BIGINT         NOT NULL AUTO_INCREMENT,
+    driver_id       BIGINT         NOT NULL,
+    source          VARCHAR(100)   NOT NULL,
+    destination     VARCHAR(100)   NOT NULL,
+    departure_date  DATETIME(6)    NOT NULL,
+    available_seats INT            NOT NULL,
+    total_seats     INT            NOT NULL,
+    price_per_seat  DECIMAL(10, 2) NOT NULL,
+    vehicle_type    VARCHAR(50),
+    vehicle_model   VARCHAR(100),
+    vehicle_color   VARCHAR(50),
+    vehicle_number  VARCHAR(20),
+    notes           VARCHAR(500),
+    status          ENUM('ACTIVE', 'COMPLETED', 'CANCELLED', 'FULL') NOT NULL,
+    created_at      DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_rides_driver FOREIGN KEY (driver_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+-- status is stored as the BookingStatus ordinal
+CREATE TABLE IF NOT EXISTS bookings (
+    id              BIGINT         NOT NULL AUTO_INCREMENT,
+    ride_id         BIGINT         NOT NULL,
+    passenger_id    BIGINT         NOT NULL,
+    seats_booked    INT            NOT NULL,
+    total_amount    DECIMAL(10, 2) NOT NULL,
+    passenger_name  VARCHAR(100)   NOT NULL,
+    passenger_phone VARCHAR(20)    NOT NULL,
+    pickup_point    VARCHAR(200),
+    status          TINYINT        NOT NULL,
+    booking_date    DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_ride FOREIGN KEY (ride_id) REFERENCES rides (id),
+    CONSTRAINT fk_bookings_passenger FOREIGN KEY (passenger_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS otp_verification (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    phone_number VARCHAR(20) NOT NULL,
+    otp          VARCHAR(6)  NOT NULL,
+    expires_at   DATETIME(6) NOT NULL,
+    is_used      BIT(1)      NOT NULL,
+    created_at   DATETIME(6) NOT NULL,
+    verified_at  DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,18 @@
+-- Transactional email outbox (EmailOutbox). Not part of the ddl-auto=update baseline, so it gets its own
+-- migration and is created on databases baselined at version 1 as well as on new ones.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(100) NOT NULL,
+    subject         VARCHAR(200) NOT NULL,
+    template_name   VARCHAR(100) NOT NULL,
+    payload         TEXT         NOT NULL,
+    status          ENUM('PENDING', 'SENDING', 'SENT', 'FAILED') NOT NULL,
+    attempts        INT          NOT NULL,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      DATETIME(6)  NOT NULL,
+    sent_at         DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,26 @@
+-- Indexes for the queries in RideRepository, BookingRepository, OtpVerificationRepository and UserRepository.
+-- Keep the names in sync with SchemaIndexVerifier.
+
+-- Search, bookable-ride index load, findActiveRidesWithAvailableSeats: status = ? AND departure_date > now
+CREATE INDEX idx_rides_status_departure ON rides (status, departure_date);
+
+-- Driver listings (findWithDriverByDriverId, findUpcomingRidesByDriver, findPastRidesByDriver)
+CREATE INDEX idx_rides_driver_departure ON rides (driver_id, departure_date);
+
+-- Passenger listings ordered by booking date
+CREATE INDEX idx_bookings_passenger_date ON bookings (passenger_id, booking_date);
+
+-- Ride bookings by status (confirmed listing, open-booking fetch, bulk cancel, duplicate-booking check)
+CREATE INDEX idx_bookings_ride_status ON bookings (ride_id, status, booking_date);
+
+-- OTP lookup of the unused code for a phone number
+CREATE INDEX idx_otp_phone_used ON otp_verification (phone_number, is_used);
+
+-- OTP rate limiting: countByPhoneNumberAndCreatedAtAfter
+CREATE INDEX idx_otp_phone_created ON otp_verification (phone_number, created_at);
+
+-- Expired OTP cleanup: deleteByExpiresAtBefore
+CREATE INDEX idx_otp_expires_at ON otp_verification (expires_at);
+
+-- Revoked-user refresh: findInactiveUserIds
+CREATE INDEX idx_users_is_active ON users (is_active);
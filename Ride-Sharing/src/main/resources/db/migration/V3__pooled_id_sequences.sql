@@ -0,0 +1,33 @@
+-- Hibernate emulates sequences on MySQL with single-row tables (next_val). Entities reserve ids in
+-- blocks of 50 (allocationSize), which lets inserts be JDBC-batched; IDENTITY needs one round trip per row.
+-- Each table is seeded past the current AUTO_INCREMENT ids so the pooled ranges never collide with them.
+
+CREATE TABLE IF NOT EXISTS users_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+
+CREATE TABLE IF NOT EXISTS driver_details_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO driver_details_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM driver_details;
+
+CREATE TABLE IF NOT EXISTS rides_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO rides_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM rides;
+
+CREATE TABLE IF NOT EXISTS bookings_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO bookings_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM bookings;
+
+CREATE TABLE IF NOT EXISTS otp_verification_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO otp_verification_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM otp_verification;
+
+CREATE TABLE IF NOT EXISTS email_outbox_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO email_outbox_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM email_outbox;
@@ -0,0 +1,210 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.dto.BookingDto;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.BookingRepository;
+import com.ridesharing.repository.RideRepository;
+import com.ridesharing.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingConcurrencyTests {
+
+    private static final int SEATS = 7;
+    private static final int PASSENGERS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelBookingsNeverOversellARide() throws Exception {
+        String runId = Long.toString(System.nanoTime() % 1_000_000_000L);
+        User driver = userRepository.save(newUser("d" + runId, UserRole.DRIVER));
+        Ride ride = rideRepository.save(newRide(driver));
+        List<Long> userIds = new ArrayList<>(List.of(driver.getId()));
+        try {
+            // Saved through the repository, so the counter has to be seeded for the CAS path to run
+            seatInventory.reload(ride.getId());
+            bookOncePerPassenger(runId, ride, userIds);
+        } finally {
+            cleanUp(ride, userIds);
+        }
+    }
+
+    @Test
+    void rejectionReconcilesWithSeatsFreedElsewhere() {
+        String runId = Long.toString(System.nanoTime() % 1_000_000_000L);
+        User driver = userRepository.save(newUser("r" + runId, UserRole.DRIVER));
+        Ride ride = rideRepository.save(newRide(driver));
+        try {
+            SeatInventory inventory = new SeatInventory(rideRepository, transactionManager, true, 0);
+            inventory.reload(ride.getId());
+            assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(ride.getId(), SEATS));
+
+            // The counter says sold out but the row still has every seat, as after a cancellation on
+            // another instance: the rejection re-reads the ride and admits the booking
+            assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(ride.getId(), 1));
+
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update("UPDATE rides SET available_seats = 0, status = 'FULL' WHERE id = ?", ride.getId()));
+            assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(ride.getId(), SEATS));
+        } finally {
+            cleanUp(ride, List.of(driver.getId()));
+        }
+    }
+
+    private void cleanUp(Ride ride, List<Long> userIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM bookings WHERE ride_id = ?", ride.getId());
+            jdbcTemplate.update("DELETE FROM rides WHERE id = ?", ride.getId());
+            for (Long userId : userIds) {
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+            }
+        });
+        seatInventory.removeAfterCommit(ride.getId());
+    }
+
+    private void bookOncePerPassenger(String runId, Ride ride, List<Long> userIds) throws Exception {
+        List<String> passengerPhones = new ArrayList<>();
+        for (int i = 0; i < PASSENGERS; i++) {
+            User passenger = userRepository.save(newUser("p" + runId + "-" + i, UserRole.USER));
+            userIds.add(passenger.getId());
+            passengerPhones.add(passenger.getPhoneNumber());
+        }
+
+        double bookedBefore = attempts("booked");
+        double soldOutBefore = attempts("sold_out");
+        double turnedAwayByInventoryBefore = soldOutAt("inventory");
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (String phone : passengerPhones) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.bookRide(phone, bookingFor(ride.getId(), phone));
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Ride reloaded = rideRepository.findById(ride.getId()).orElseThrow();
+        int bookedSeats = bookingRepository.countConfirmedSeatsByRide(reloaded, BookingStatus.PENDING);
+
+        assertEquals(SEATS, succeeded);
+        assertEquals(SEATS, bookedSeats);
+        assertEquals(0, reloaded.getAvailableSeats());
+        assertEquals(RideStatus.FULL, reloaded.getStatus());
+
+        // Every attempt is counted once, whichever stage turned it away
+        assertEquals(SEATS, attempts("booked") - bookedBefore);
+        assertEquals(PASSENGERS - SEATS, attempts("sold_out") - soldOutBefore);
+        // The seeded counter turned losers away before they reached the database
+        assertTrue(soldOutAt("inventory") - turnedAwayByInventoryBefore > 0);
+    }
+
+    private double soldOutAt(String stage) {
+        return meterRegistry.find("bookings.attempts").tag("outcome", "sold_out").tag("stage", stage).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.find("bookings.attempts").tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static User newUser(String suffix, UserRole role) {
+        User user = new User("Load", "Test", suffix, suffix + "@example.test", "not-a-real-hash", role);
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+
+    private static Ride newRide(User driver) {
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setSource("Kolkata");
+        ride.setDestination("Durgapur");
+        ride.setDepartureDate(LocalDateTime.now().plusDays(2));
+        ride.setAvailableSeats(SEATS);
+        ride.setTotalSeats(SEATS);
+        ride.setPricePerSeat(new BigDecimal("250.00"));
+        ride.setVehicleType("Car");
+        ride.setStatus(RideStatus.ACTIVE);
+        return ride;
+    }
+
+    private static BookingDto bookingFor(Long rideId, String phone) {
+        BookingDto dto = new BookingDto();
+        dto.setRideId(rideId);
+        dto.setSeatsBooked(1);
+        dto.setPassengerName("Load Test");
+        dto.setPassengerPhone(phone);
+        dto.setPickupPoint("Howrah");
+        return dto;
+    }
+}
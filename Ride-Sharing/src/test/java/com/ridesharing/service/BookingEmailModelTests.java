@@ -0,0 +1,17 @@
+package com.ridesharing.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingEmailModelTests {
+
+    @Test
+    void rupeesAreGroupedWithTwoDecimals() {
+        assertEquals("₹1,250.00", BookingEmailModel.rupees(new BigDecimal("1250")));
+        assertEquals("₹250.50", BookingEmailModel.rupees(new BigDecimal("250.5")));
+        assertEquals("₹0.01", BookingEmailModel.rupees(new BigDecimal("0.005")));
+    }
+}
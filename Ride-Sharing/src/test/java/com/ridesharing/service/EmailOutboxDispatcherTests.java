@@ -0,0 +1,92 @@
+package com.ridesharing.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.config.RecordingMailSender;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.EmailOutbox;
+import com.ridesharing.entity.EmailOutboxStatus;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.EmailOutboxRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.email.fake-sink=true", "app.email.outbox.poll-ms=3600000"})
+class EmailOutboxDispatcherTests {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private RecordingMailSender mailSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void queuedBookingEmailIsDeliveredToTheSink() {
+        mailSink.clear();
+        // Other rows in the shared database may be mid-dispatch, so only this run's row is checked
+        String recipient = "asha" + System.nanoTime() + "@example.test";
+
+        User passenger = new User("Asha", "Roy", "+910000000001", recipient, "x", UserRole.USER);
+        User driver = new User("Ravi", "Sen", "+910000000002", "ravi@example.test", "x", UserRole.DRIVER);
+        Ride ride = new Ride();
+        ride.setId(1L);
+        ride.setSource("Kolkata");
+        ride.setDestination("Durgapur");
+        ride.setDepartureDate(LocalDateTime.now().plusDays(1));
+        ride.setPricePerSeat(new BigDecimal("250.00"));
+        ride.setVehicleType("Car");
+        ride.setVehicleNumber("WB01AB1234");
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setBookingDate(LocalDateTime.now());
+        booking.setSeatsBooked(2);
+        booking.setTotalAmount(new BigDecimal("500.00"));
+
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.queueBookingConfirmationEmail(passenger, booking, ride, driver));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM email_outbox WHERE recipient = ?", Long.class, recipient);
+        assertEquals(EmailOutboxStatus.PENDING, emailOutboxRepository.findById(id).orElseThrow().getStatus());
+
+        dispatcher.dispatch();
+
+        EmailOutbox sent = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.SENT, sent.getStatus());
+        assertNotNull(sent.getSentAt());
+        assertTrue(mailSink.getSentMessages().stream().anyMatch(message -> isAddressedTo(message, recipient)));
+    }
+
+    private static boolean isAddressedTo(MimeMessage message, String recipient) {
+        try {
+            return message.getAllRecipients() != null
+                    && Arrays.stream(message.getAllRecipients()).anyMatch(address -> address.toString().equals(recipient));
+        } catch (MessagingException e) {
+            return false;
+        }
+    }
+}
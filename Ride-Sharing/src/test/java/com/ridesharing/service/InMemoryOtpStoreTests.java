@@ -0,0 +1,79 @@
+package com.ridesharing.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryOtpStoreTests {
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore(new SimpleMeterRegistry(), 1_000, 10, 8);
+
+    @Test
+    void codeCanBeConsumedOnlyOnce() {
+        store.issue("+910000000001", "123456", Duration.ofMinutes(5));
+
+        assertFalse(store.consume("+910000000001", "654321"));
+        assertTrue(store.consume("+910000000001", "123456"));
+        assertFalse(store.consume("+910000000001", "123456"));
+    }
+
+    @Test
+    void reissuingReplacesTheEarlierCode() {
+        store.issue("+910000000002", "111111", Duration.ofMinutes(5));
+        store.issue("+910000000002", "222222", Duration.ofMinutes(5));
+
+        assertFalse(store.consume("+910000000002", "111111"));
+        assertTrue(store.consume("+910000000002", "222222"));
+    }
+
+    @Test
+    void expiredCodesAreRejectedAndPurged() throws InterruptedException {
+        store.issue("+910000000003", "123456", Duration.ofMillis(30));
+        // Longer than one turn of the 8 x 10ms wheel, so it gets rescheduled rather than dropped early
+        store.issue("+910000000004", "123456", Duration.ofMillis(500));
+
+        Thread.sleep(60);
+        assertFalse(store.consume("+910000000003", "123456"));
+
+        store.issue("+910000000005", "123456", Duration.ofMillis(30));
+        Thread.sleep(60);
+        assertEquals(1, store.purgeExpired());
+        assertEquals(1, store.size());
+        assertTrue(store.consume("+910000000004", "123456"));
+    }
+
+    @Test
+    void concurrentVerificationsSucceedOnce() throws Exception {
+        store.issue("+910000000006", "123456", Duration.ofMinutes(5));
+        AtomicInteger successes = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(pool.submit(() -> {
+                    if (store.consume("+910000000006", "123456")) {
+                        successes.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, successes.get());
+    }
+}
@@ -0,0 +1,314 @@
+package com.ridesharing.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.dto.BookingResponseDto;
+import com.ridesharing.dto.RecurringRidePostDto;
+import com.ridesharing.dto.RecurringRideSummaryDto;
+import com.ridesharing.dto.RideResponseDto;
+import com.ridesharing.dto.RideSearchDto;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.DriverDetail;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.BookingRepository;
+import com.ridesharing.repository.DriverDetailRepository;
+import com.ridesharing.repository.RideRepository;
+import com.ridesharing.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing and search endpoints must cost a fixed number of SQL statements regardless of how many
+ * rows they return.
+ * User lookups are served from the user cache, which is warmed before counting.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QueryCountTests {
+
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DriverDetailRepository driverDetailRepository;
+
+    @Autowired
+    private RideSearchIndex rideSearchIndex;
+
+    @Autowired
+    private RideSearchCache rideSearchCache;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Statistics statistics;
+    private User driver;
+    private User passenger;
+    private Ride ride;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String runId = Long.toString(System.nanoTime() % 1_000_000_000L);
+        driver = userRepository.save(newUser("qd" + runId, UserRole.DRIVER));
+        passenger = userRepository.save(newUser("qp" + runId, UserRole.USER));
+        userIds.add(driver.getId());
+        userIds.add(passenger.getId());
+        ride = rideRepository.save(newRide(driver));
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingRepository.save(newBooking(ride, passenger));
+        }
+
+        // Warm the user cache so only the listing query itself is counted
+        userService.getUserByPhoneNumber(driver.getPhoneNumber());
+        userService.getUserByPhoneNumber(passenger.getPhoneNumber());
+    }
+
+    // Everything hangs off the users created here: their bookings, rides (posted ones included) and driver details
+    @AfterEach
+    void tearDown() {
+        List<Long> rideIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long userId : userIds) {
+                rideIds.addAll(jdbcTemplate.queryForList("SELECT id FROM rides WHERE driver_id = ?", Long.class, userId));
+            }
+            for (Long userId : userIds) {
+                jdbcTemplate.update("DELETE FROM bookings WHERE passenger_id = ?", userId);
+            }
+            for (Long rideId : rideIds) {
+                jdbcTemplate.update("DELETE FROM bookings WHERE ride_id = ?", rideId);
+                jdbcTemplate.update("DELETE FROM rides WHERE id = ?", rideId);
+            }
+            for (Long userId : userIds) {
+                jdbcTemplate.update("DELETE FROM driver_details WHERE user_id = ?", userId);
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+            }
+        });
+        for (Long rideId : rideIds) {
+            rideSearchIndex.remove(rideId);
+            seatInventory.removeAfterCommit(rideId);
+        }
+        userIds.clear();
+    }
+
+    @Test
+    void passengerBookingsIsOneStatement() {
+        statistics.clear();
+        List<BookingResponseDto> bookings = bookingService.getPassengerBookings(passenger.getPhoneNumber());
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void driverBookingsIsOneStatement() {
+        statistics.clear();
+        List<BookingResponseDto> bookings = bookingService.getDriverBookings(driver.getPhoneNumber());
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rideBookingsIsOneStatement() {
+        statistics.clear();
+        List<BookingResponseDto> bookings = bookingService.getRideBookings(driver.getPhoneNumber(), ride.getId());
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals(driver.getFirstName() + " " + driver.getLastName(), bookings.get(0).getDriverName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void driverRidesIsOneStatement() {
+        for (int i = 0; i < 3; i++) {
+            rideRepository.save(newRide(driver));
+        }
+
+        statistics.clear();
+        int rides = rideService.getDriverRides(driver.getPhoneNumber()).size();
+
+        assertEquals(4, rides);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void upcomingDriverRidesIsOneStatement() {
+        rideRepository.save(newRide(driver));
+
+        statistics.clear();
+        int rides = rideService.getUpcomingDriverRides(driver.getPhoneNumber()).size();
+
+        assertEquals(2, rides);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void indexedSearchPageIsOneStatement() {
+        List<Ride> rides = searchableRides();
+        assertTrue(rideSearchIndex.isReady());
+        rides.forEach(rideSearchIndex::refresh);
+
+        statistics.clear();
+        Page<RideResponseDto> page = rideService.searchRides(searchFor(rides.get(0).getSource()));
+
+        // Ids come from the index; the rows and their drivers are one fetch-joined query
+        assertEquals(rides.size(), page.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void databaseSearchPageIsOneStatement() {
+        List<Ride> rides = searchableRides();
+        RideSearchDto search = searchFor(rides.get(0).getSource());
+        // The index cannot order by vehicle type, so this page comes from searchAvailableRides
+        search.setSortBy("vehicleType");
+
+        statistics.clear();
+        Page<RideResponseDto> page = rideService.searchRides(search);
+
+        // A short first page needs no count query, and drivers are fetch-joined rather than loaded per row
+        assertEquals(rides.size(), page.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void recurringRidesAreOneBatchedInsert() {
+        DriverDetail driverDetail = new DriverDetail();
+        driverDetail.setUser(driver);
+        driverDetail.setLicenseNumber("QC-" + driver.getPhoneNumber());
+        driverDetail.setCarNumber(driver.getPhoneNumber());
+        driverDetail.setCarModel("Maruti Swift");
+        driverDetail.setIsVerified(true);
+        driverDetailRepository.save(driverDetail);
+
+        RecurringRidePostDto schedule = new RecurringRidePostDto();
+        schedule.setSource("Kolkata");
+        schedule.setDestination("Siliguri");
+        schedule.setStartDate(LocalDate.now().plusDays(1));
+        schedule.setDepartureTime(LocalTime.of(8, 30));
+        schedule.setDaysOfWeek(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        schedule.setWeeks(2);
+        schedule.setAvailableSeats(3);
+        schedule.setPricePerSeat(new BigDecimal("250.00"));
+
+        statistics.clear();
+        RecurringRideSummaryDto summary = rideService.postRecurringRides(driver.getPhoneNumber(), schedule);
+
+        assertEquals(10, summary.getRidesPosted());
+        assertEquals(10, statistics.getEntityInsertCount());
+        // Driver detail lookup, id block allocation and one batched insert, not one statement per ride.
+        // Counted through commit, so it also covers the after-commit index and seat inventory updates.
+        assertTrue(statistics.getPrepareStatementCount() < summary.getRidesPosted());
+        assertEquals(0, statistics.getEntityStatistics(Ride.class.getName()).getLoadCount());
+    }
+
+    // Rides on a route unique to this run, each with its own driver, with no cached result pages
+    private List<Ride> searchableRides() {
+        String source = "Kolkata " + driver.getPhoneNumber();
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User rideDriver = userRepository.save(newUser(driver.getPhoneNumber() + "-s" + i, UserRole.DRIVER));
+            userIds.add(rideDriver.getId());
+            Ride searchable = newRide(rideDriver);
+            searchable.setSource(source);
+            rides.add(rideRepository.save(searchable));
+        }
+        rideSearchCache.invalidate(rides.get(0));
+        return rides;
+    }
+
+    private static RideSearchDto searchFor(String source) {
+        RideSearchDto search = new RideSearchDto();
+        search.setSource(source);
+        search.setDestination("siliguri");
+        search.setSize(20);
+        return search;
+    }
+
+    private static User newUser(String phone, UserRole role) {
+        User user = new User("Query", "Count", phone, phone + "@example.test", "not-a-real-hash", role);
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+
+    private static Ride newRide(User driver) {
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setSource("Kolkata");
+        ride.setDestination("Siliguri");
+        ride.setDepartureDate(LocalDateTime.now().plusDays(3));
+        ride.setAvailableSeats(BOOKINGS);
+        ride.setTotalSeats(BOOKINGS * 2);
+        ride.setPricePerSeat(new BigDecimal("900.00"));
+        ride.setVehicleType("Car");
+        ride.setStatus(RideStatus.ACTIVE);
+        return ride;
+    }
+
+    private static Booking newBooking(Ride ride, User passenger) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setPassenger(passenger);
+        booking.setSeatsBooked(1);
+        booking.setTotalAmount(new BigDecimal("900.00"));
+        booking.setPassengerName("Query Count");
+        booking.setPassengerPhone(passenger.getPhoneNumber());
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ridesharing.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts the same number of rides with per-row IDENTITY inserts and with pooled sequence ids plus
+ * JDBC batching, and prints the wall time of each. Writes 2 x 100k rows, so it only runs when asked:
+ * {@code mvn test -Dtest=RideInsertBenchmarkTests -Dbenchmark.inserts=true [-Dbenchmark.rows=100000]}.
+ * The datasource url needs rewriteBatchedStatements=true for MySQL to actually send multi-row inserts.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.inserts", matches = "true")
+class RideInsertBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int CHUNK = 1_000;
+
+    private static final String INSERT_RIDE =
+            "INSERT INTO rides (driver_id, source, destination, departure_date, available_seats, total_seats, " +
+            "price_per_seat, vehicle_type, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void identityVersusPooledSequenceInserts() {
+        String runId = Long.toString(System.nanoTime() % 1_000_000_000L);
+        User driver = userRepository.save(newDriver("bi" + runId));
+
+        long identityNanos = time(() -> insertWithIdentity(driver));
+        long pooledNanos = time(() -> insertWithPooledSequence(driver));
+
+        Integer inserted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rides WHERE driver_id = ?", Integer.class, driver.getId());
+        assertEquals(ROWS * 2, inserted);
+
+        System.out.printf("Inserted %d rides per strategy%n", ROWS);
+        System.out.printf("  IDENTITY (one round trip per row): %,d ms%n", identityNanos / 1_000_000);
+        System.out.printf("  pooled sequence + batch_size:      %,d ms%n", pooledNanos / 1_000_000);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM rides WHERE driver_id = ?", driver.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", driver.getId());
+        });
+    }
+
+    // What Hibernate does for GenerationType.IDENTITY: every insert executes on its own to read the key back
+    private void insertWithIdentity(User driver) {
+        for (int from = 0; from < ROWS; from += CHUNK) {
+            int to = Math.min(from + CHUNK, ROWS);
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < to - from; i++) {
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(INSERT_RIDE, Statement.RETURN_GENERATED_KEYS);
+                        ps.setLong(1, driver.getId());
+                        ps.setString(2, "Kolkata");
+                        ps.setString(3, "Siliguri");
+                        ps.setTimestamp(4, Timestamp.valueOf(now.plusDays(3)));
+                        ps.setInt(5, 4);
+                        ps.setInt(6, 4);
+                        ps.setBigDecimal(7, new BigDecimal("900.00"));
+                        ps.setString(8, "Car");
+                        ps.setString(9, RideStatus.ACTIVE.name());
+                        ps.setTimestamp(10, Timestamp.valueOf(now));
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                        return ps;
+                    }, keyHolder);
+                }
+            });
+        }
+    }
+
+    // The entity path: ids are handed out from a pooled block and the inserts go out in JDBC batches
+    private void insertWithPooledSequence(User driver) {
+        for (int from = 0; from < ROWS; from += CHUNK) {
+            int to = Math.min(from + CHUNK, ROWS);
+            transactionTemplate.executeWithoutResult(status -> {
+                User driverRef = entityManager.getReference(User.class, driver.getId());
+                for (int i = 0; i < to - from; i++) {
+                    entityManager.persist(newRide(driverRef));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+
+    private static User newDriver(String phone) {
+        User user = new User("Insert", "Bench", phone, phone + "@example.test", "not-a-real-hash", UserRole.DRIVER);
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+
+    private static Ride newRide(User driver) {
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setSource("Kolkata");
+        ride.setDestination("Siliguri");
+        ride.setDepartureDate(LocalDateTime.now().plusDays(3));
+        ride.setAvailableSeats(4);
+        ride.setTotalSeats(4);
+        ride.setPricePerSeat(new BigDecimal("900.00"));
+        ride.setVehicleType("Car");
+        ride.setStatus(RideStatus.ACTIVE);
+        return ride;
+    }
+}
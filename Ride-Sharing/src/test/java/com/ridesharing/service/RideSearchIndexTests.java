@@ -0,0 +1,144 @@
+package com.ridesharing.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ridesharing.dto.RideSearchDto;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RideSearchIndexTests {
+
+    private final LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    // No repository: the tests feed rides in directly, so the after-commit reload path is not used
+    private final RideSearchIndex index = new RideSearchIndex(null, null, true);
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                ride(1L, "Salt Lake Sector 5, Kolkata", "Siliguri", tomorrow, 3, "450.00"),
+                ride(2L, "Kolkata Airport", "Durgapur", tomorrow.plusHours(2), 1, "300.00"),
+                ride(3L, "Howrah Station", "Siliguri", tomorrow.plusDays(1), 4, "500.00"),
+                ride(4L, "Kolkata", "Digha", tomorrow, 0, "200.00")));
+    }
+
+    @Test
+    void indexesOnlyBookableRides() {
+        assertTrue(index.isReady());
+        assertEquals(3, index.size());
+        assertEquals(List.of(), ids(search("kolkata", "digha")));
+    }
+
+    @Test
+    void matchesSubstringsOfSourceAndDestination() {
+        assertEquals(List.of(1L, 2L), ids(search("kolkata", null)));
+        assertEquals(List.of(1L, 3L), ids(search(null, "siliguri")));
+        assertEquals(List.of(1L), ids(search("lake sec", "silig")));
+        // Shorter than a trigram: answered from the token dictionary
+        assertEquals(List.of(3L), ids(search("ho", null)));
+    }
+
+    @Test
+    void appliesDayAndSeatAndPriceFilters() {
+        RideSearchDto dto = new RideSearchDto();
+        dto.setDepartureDate(tomorrow);
+        assertEquals(List.of(1L, 2L), ids(dto));
+
+        dto.setMinSeats(2);
+        assertEquals(List.of(1L), ids(dto));
+
+        dto = new RideSearchDto();
+        dto.setMaxPrice(new BigDecimal("350.00"));
+        assertEquals(List.of(2L), ids(dto));
+    }
+
+    @Test
+    void refreshFollowsStatusSeatAndPlaceChanges() {
+        index.refresh(ride(2L, "Kolkata Airport", "Durgapur", tomorrow.plusHours(2), 0, "300.00"));
+        assertEquals(List.of(1L), ids(search("kolkata", null)));
+
+        Ride cancelled = ride(1L, "Salt Lake Sector 5, Kolkata", "Siliguri", tomorrow, 3, "450.00");
+        cancelled.setStatus(RideStatus.CANCELLED);
+        index.refresh(cancelled);
+        assertEquals(List.of(), ids(search("kolkata", null)));
+
+        index.refresh(ride(3L, "Asansol", "Siliguri", tomorrow.plusDays(1), 4, "500.00"));
+        assertEquals(List.of(), ids(search("howrah", null)));
+        assertEquals(List.of(3L), ids(search("asansol", null)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void addAllIndexesNewRidesButKeepsOnesAlreadyIndexed() {
+        index.addAll(List.of(
+                ride(5L, "Asansol", "Siliguri", tomorrow, 2, "350.00"),
+                ride(6L, "Asansol", "Digha", tomorrow, 0, "350.00"),
+                ride(1L, "Salt Lake Sector 5, Kolkata", "Siliguri", tomorrow, 1, "450.00")));
+
+        assertEquals(List.of(5L), ids(search("asansol", null)));
+        assertEquals(4, index.size());
+        RideSearchDto dto = search("kolkata", null);
+        dto.setMinSeats(3);
+        assertEquals(List.of(1L), ids(dto));
+    }
+
+    @Test
+    void removeDropsTheRide() {
+        index.remove(1L);
+        assertEquals(List.of(2L), ids(search("kolkata", null)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void cursorSearchPagesByDepartureThenId() {
+        RideSearchDto dto = new RideSearchDto();
+
+        List<Long> first = index.searchAfter(dto, null, 2).orElseThrow();
+        assertEquals(List.of(1L, 2L), first);
+
+        RideSearchCursor after = new RideSearchCursor(tomorrow.plusHours(2), 2L);
+        assertEquals(List.of(3L), index.searchAfter(dto, after, 2).orElseThrow());
+    }
+
+    @Test
+    void unsupportedSortFallsBackToTheDatabase() {
+        RideSearchDto dto = new RideSearchDto();
+        dto.setSortBy("driverName");
+        assertFalse(index.search(dto).isPresent());
+    }
+
+    private RideSearchDto search(String source, String destination) {
+        RideSearchDto dto = new RideSearchDto();
+        dto.setSource(source);
+        dto.setDestination(destination);
+        return dto;
+    }
+
+    private List<Long> ids(RideSearchDto dto) {
+        return index.search(dto).orElseThrow().getContent();
+    }
+
+    private static Ride ride(Long id, String source, String destination, LocalDateTime departure,
+                             int availableSeats, String price) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setSource(source);
+        ride.setDestination(destination);
+        ride.setDepartureDate(departure);
+        ride.setAvailableSeats(availableSeats);
+        ride.setTotalSeats(4);
+        ride.setPricePerSeat(new BigDecimal(price));
+        ride.setVehicleType("Car");
+        ride.setStatus(RideStatus.ACTIVE);
+        return ride;
+    }
+}
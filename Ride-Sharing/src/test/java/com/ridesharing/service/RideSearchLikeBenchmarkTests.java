@@ -0,0 +1,185 @@
+package com.ridesharing.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ridesharing.entity.RideStatus;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times the search predicate MySQL runs today ({@code LOWER(source) LIKE '%q%'} on bookable rides)
+ * against a TrigramIndex over the same rows, at 100k and then 1M rides. Writes 1M rows, so it only
+ * runs when asked: {@code mvn test -Dtest=RideSearchLikeBenchmarkTests -Dbenchmark.search=true}.
+ * The in-memory side of the comparison is also in the JMH module as TrigramSearchBenchmark.
+ * Every ride it inserts is deleted again when it finishes.
+ */
+@SpringBootTest
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark.search", matches = "true")
+class RideSearchLikeBenchmarkTests {
+
+    private static final int[] SIZES = {100_000, 1_000_000};
+    private static final int CHUNK = 5_000;
+    // Ride's @SequenceGenerator allocationSize
+    private static final int ID_BLOCK = 50;
+    private static final int RUNS = 5;
+    private static final List<String> QUERIES = List.of("salt lake sector 12, kolkata", "siliguri", "road");
+
+    private static final String[] CITIES = {
+            "Kolkata", "Siliguri", "Durgapur", "Asansol", "Howrah", "Kharagpur", "Bardhaman", "Haldia",
+            "Darjeeling", "Jalpaiguri", "Malda", "Bolpur", "Digha", "Bhubaneswar", "Ranchi", "Patna"};
+
+    private static final String[] LOCALITIES = {
+            "Salt Lake Sector", "New Town Action Area", "Park Street", "Ballygunge Phari", "Garia Station",
+            "Behala Chowrasta", "Dum Dum Metro", "Esplanade Bus Stand", "City Centre", "Station Road",
+            "Bus Terminus", "Hill Cart Road", "College More", "Airport Gate", "Bazar Lane", "Stadium Road"};
+
+    private static final String INSERT_RIDE =
+            "INSERT INTO rides (id, driver_id, source, destination, departure_date, available_seats, total_seats, " +
+            "price_per_seat, vehicle_type, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // The source half of RideRepository.SEARCH_FILTERS
+    private static final String LIKE_SEARCH =
+            "SELECT COUNT(*) FROM rides WHERE LOWER(source) LIKE CONCAT('%', ?, '%') " +
+            "AND status = 'ACTIVE' AND departure_date > CURRENT_TIMESTAMP AND available_seats > 0";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void likeScanVersusTrigramIndex() {
+        String runId = Long.toString(System.nanoTime() % 1_000_000_000L);
+        User driver = userRepository.save(newDriver("bs" + runId));
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>();
+        TrigramIndex index = new TrigramIndex();
+
+        try {
+            for (int size : SIZES) {
+                List<String> added = new ArrayList<>();
+                while (names.size() + added.size() < size) {
+                    added.add(placeName(random));
+                }
+                insert(driver, added);
+                for (String name : added) {
+                    index.add(names.size(), name);
+                    names.add(name);
+                }
+
+                log.info("{} rides", String.format("%,d", size));
+                for (String query : QUERIES) {
+                    int expected = jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM rides WHERE driver_id = ? AND LOWER(source) LIKE CONCAT('%', ?, '%')",
+                            Integer.class, driver.getId(), query);
+                    assertEquals(expected, trigramCount(index, names, query));
+
+                    long likeNanos = median(() -> jdbcTemplate.queryForObject(LIKE_SEARCH, Integer.class, query));
+                    long trigramNanos = median(() -> trigramCount(index, names, query));
+                    log.info(String.format("  %-30s %,7d matches   LIKE %,9.2f ms   trigram %,9.3f ms",
+                            "'" + query + "'", expected, likeNanos / 1e6, trigramNanos / 1e6));
+                }
+            }
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM rides WHERE driver_id = ?", driver.getId());
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", driver.getId());
+            });
+        }
+    }
+
+    private static int trigramCount(TrigramIndex index, List<String> names, String query) {
+        int matches = 0;
+        for (int id : index.search(query)) {
+            if (names.get(id).contains(query)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private void insert(User driver, List<String> sources) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp departure = Timestamp.valueOf(LocalDateTime.now().plusDays(7));
+        for (int from = 0; from < sources.size(); from += CHUNK) {
+            List<String> chunk = sources.subList(from, Math.min(from + CHUNK, sources.size()));
+            long firstId = reserveRideIds(chunk.size());
+            AtomicLong nextId = new AtomicLong(firstId);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_RIDE, chunk, chunk.size(), (ps, source) -> {
+                        ps.setLong(1, nextId.getAndIncrement());
+                        ps.setLong(2, driver.getId());
+                        ps.setString(3, source);
+                        ps.setString(4, "Siliguri");
+                        ps.setTimestamp(5, departure);
+                        ps.setInt(6, 4);
+                        ps.setInt(7, 4);
+                        ps.setBigDecimal(8, new BigDecimal("500.00"));
+                        ps.setString(9, "Car");
+                        ps.setString(10, RideStatus.ACTIVE.name());
+                        ps.setTimestamp(11, now);
+                        ps.setTimestamp(12, now);
+                    }));
+        }
+    }
+
+    // Ids come from rides_seq like the entity's, so they cannot collide with rides the app inserts.
+    // Hibernate's pooled optimizer owns ids next_val - 49 .. next_val for every next_val it reads, so
+    // advancing next_val by whole blocks reserves the ids starting at the value read minus 49.
+    private long reserveRideIds(int count) {
+        int blocks = (count + ID_BLOCK - 1) / ID_BLOCK;
+        return transactionTemplate.execute(status -> {
+            long next = jdbcTemplate.queryForObject("SELECT next_val FROM rides_seq FOR UPDATE", Long.class);
+            jdbcTemplate.update("UPDATE rides_seq SET next_val = ?", next + (long) blocks * ID_BLOCK);
+            return next - ID_BLOCK + 1;
+        });
+    }
+
+    private static long median(IntSupplier search) {
+        search.getAsInt(); // warm-up: buffer pool for LIKE, JIT for the index
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            search.getAsInt();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    private static String placeName(Random random) {
+        return (LOCALITIES[random.nextInt(LOCALITIES.length)] + " " + (1 + random.nextInt(40)) + ", "
+                + CITIES[random.nextInt(CITIES.length)]).toLowerCase();
+    }
+
+    private static User newDriver(String phone) {
+        User user = new User("Search", "Bench", phone, phone + "@example.test", "not-a-real-hash", UserRole.DRIVER);
+        user.setIsVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+}
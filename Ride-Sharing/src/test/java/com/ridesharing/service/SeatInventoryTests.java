@@ -0,0 +1,108 @@
+package com.ridesharing.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatInventoryTests {
+
+    // No repository: slots are seeded directly, and a rejection is not reconciled within the hour
+    private final SeatInventory inventory = new SeatInventory(null, null, true, 3_600_000);
+
+    @Test
+    void acquiresUntilSoldOutThenRejects() {
+        inventory.sync(ride(1L, 3, 4, RideStatus.ACTIVE));
+
+        assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(1L, 2));
+        assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(1L, 2));
+        assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(1L, 1));
+        assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(1L, 1));
+    }
+
+    @Test
+    void unseededOrDisabledRidesAreLeftToTheDatabase() {
+        assertEquals(SeatInventory.Admission.UNTRACKED, inventory.tryAcquire(9L, 1));
+
+        SeatInventory disabled = new SeatInventory(null, null, false, 3_600_000);
+        disabled.sync(ride(1L, 3, 4, RideStatus.ACTIVE));
+        assertEquals(SeatInventory.Admission.UNTRACKED, disabled.tryAcquire(1L, 1));
+    }
+
+    @Test
+    void releaseIsCappedAtTotalSeats() {
+        inventory.sync(ride(1L, 2, 4, RideStatus.ACTIVE));
+
+        inventory.release(1L, 5);
+
+        assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(1L, 4));
+        assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(1L, 1));
+    }
+
+    @Test
+    void syncFollowsTheRideState() {
+        inventory.sync(ride(1L, 3, 4, RideStatus.FULL));
+        assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(1L, 1));
+
+        inventory.sync(ride(1L, 3, 4, RideStatus.CANCELLED));
+        assertEquals(SeatInventory.Admission.UNTRACKED, inventory.tryAcquire(1L, 1));
+        assertEquals(0, inventory.size());
+    }
+
+    @Test
+    void seedingKeepsCountersALaterWriteAlreadySet() {
+        inventory.sync(ride(1L, 1, 4, RideStatus.ACTIVE));
+
+        inventory.seedAfterCommit(List.of(ride(1L, 4, 4, RideStatus.ACTIVE), ride(2L, 2, 2, RideStatus.ACTIVE)));
+
+        assertEquals(SeatInventory.Admission.REJECTED, inventory.tryAcquire(1L, 2));
+        assertEquals(SeatInventory.Admission.ACQUIRED, inventory.tryAcquire(2L, 2));
+    }
+
+    @Test
+    void rejectionThatCannotBeReconciledFallsBackToTheDatabase() {
+        SeatInventory reconciling = new SeatInventory(null, null, true, 0);
+        reconciling.sync(ride(1L, 0, 4, RideStatus.ACTIVE));
+
+        // The re-read fails without a repository; the ride is dropped rather than refused on a stale count
+        assertEquals(SeatInventory.Admission.UNTRACKED, reconciling.tryAcquire(1L, 1));
+        assertEquals(0, reconciling.size());
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheSeats() throws InterruptedException {
+        inventory.sync(ride(1L, 7, 7, RideStatus.ACTIVE));
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> {
+                if (inventory.tryAcquire(1L, 1) == SeatInventory.Admission.ACQUIRED) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(7, acquired.get());
+    }
+
+    private static Ride ride(Long id, int availableSeats, int totalSeats, RideStatus status) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setDepartureDate(LocalDateTime.now().plusDays(1));
+        ride.setAvailableSeats(availableSeats);
+        ride.setTotalSeats(totalSeats);
+        ride.setStatus(status);
+        return ride;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ridesharing.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.sms.gateway=stub", "app.sms.initial-backoff-ms=50"})
+class SmsDispatcherTests {
+
+    @Autowired
+    private OtpService otpService;
+
+    @Autowired
+    private SmsDispatcher smsDispatcher;
+
+    @Autowired
+    private StubSmsGateway gateway;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void otpIsDeliveredInTheBackground() throws InterruptedException {
+        gateway.clear();
+        String phone = "+91" + (7_000_000_000L + System.nanoTime() % 1_000_000_000L);
+
+        String id = otpService.generateAndSendOtp(phone);
+
+        await(() -> gateway.getSent().stream().anyMatch(sms -> sms.phoneNumber().equals(phone)));
+        assertTrue(gateway.getSent().stream()
+                .filter(sms -> sms.phoneNumber().equals(phone))
+                .allMatch(sms -> sms.body().contains("verification code")));
+        await(() -> smsDispatcher.status(id)
+                .map(d -> d.status() == SmsDispatcher.Status.SENT)
+                .orElse(false));
+        assertEquals(id, smsDispatcher.latestForPhone(phone).orElseThrow().id());
+    }
+
+    @Test
+    void nothingIsRecordedOrSentWhenTheTransactionRollsBack() throws InterruptedException {
+        gateway.clear();
+        String phone = "+91" + (6_000_000_000L + System.nanoTime() % 1_000_000_000L);
+
+        String id = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return smsDispatcher.enqueueAfterCommit(phone, "never sent");
+        });
+
+        Thread.sleep(200);
+        assertTrue(smsDispatcher.status(id).isEmpty());
+        assertTrue(smsDispatcher.latestForPhone(phone).isEmpty());
+        assertTrue(gateway.getSent().stream().noneMatch(sms -> sms.phoneNumber().equals(phone)));
+    }
+
+    @Test
+    void failedSendIsRetried() throws InterruptedException {
+        gateway.clear();
+        gateway.failNext(1);
+
+        String id = smsDispatcher.enqueueAfterCommit("+910000000099", "retry me");
+
+        await(() -> smsDispatcher.status(id)
+                .map(d -> d.status() == SmsDispatcher.Status.SENT)
+                .orElse(false));
+        SmsDispatcher.SmsDelivery delivery = smsDispatcher.status(id).orElseThrow();
+        assertEquals(2, delivery.attempts());
+        assertEquals("stub", delivery.provider());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ridesharing.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmtpTransportPoolTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void batchReusesOneConnection() throws Exception {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SmtpTransportPool pool = new SmtpTransportPool(sender, meterRegistry, true, 2, 60, 1000);
+
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(message(sender, "rider" + i + "@example.test"));
+        }
+        List<Exception> results = pool.send(messages);
+        pool.send(message(sender, "again@example.test"));
+
+        assertTrue(results.stream().allMatch(result -> result == null));
+        assertEquals(6, greenMail.getReceivedMessages().length);
+
+        SmtpTransportPool.SmtpPoolStats stats = pool.stats();
+        assertEquals(1, stats.handshakes());
+        assertEquals(6, stats.messagesSent());
+        assertEquals(0, stats.inUse());
+        assertEquals(1, stats.idle());
+        assertEquals(1, meterRegistry.get("mail.smtp.handshakes").functionCounter().count());
+        assertEquals(6, meterRegistry.get("mail.smtp.messages").tag("result", "sent").functionCounter().count());
+        assertEquals(1, meterRegistry.get("mail.smtp.pool.connections").tag("state", "idle").gauge().value());
+        pool.close();
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, String to) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@example.test");
+        helper.setTo(to);
+        helper.setSubject("Pool test");
+        helper.setText("hello");
+        return message;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ridesharing.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrigramIndexTests {
+
+    @Test
+    void findsEveryDocumentContainingTheQueryTrigrams() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(3, "salt lake sector 5, kolkata");
+        index.add(1, "kolkata airport");
+        index.add(2, "siliguri");
+
+        assertArrayEquals(new int[] {1, 3}, index.search("kolkata"));
+        assertArrayEquals(new int[] {3}, index.search("lake"));
+        assertArrayEquals(new int[] {2}, index.search("gur"));
+        assertArrayEquals(new int[0], index.search("howrah"));
+    }
+
+    @Test
+    void queriesShorterThanATrigramCannotBeNarrowed() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "kolkata");
+
+        assertNull(index.search("ko"));
+        assertNull(index.search(null));
+    }
+
+    @Test
+    void candidatesNeedConfirmingWhenTrigramsAreNotAdjacent() {
+        TrigramIndex index = new TrigramIndex();
+        // Holds "abc" and "bcd" but not "abcd"
+        index.add(1, "abc bcd");
+
+        assertArrayEquals(new int[] {1}, index.search("abcd"));
+        assertEquals(false, "abc bcd".contains("abcd"));
+    }
+
+    @Test
+    void removeDropsTheDocumentAndEmptyPostingLists() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "kolkata");
+        index.add(2, "kolkata");
+        int trigrams = index.trigramCount();
+
+        index.remove(1, "kolkata");
+        assertArrayEquals(new int[] {2}, index.search("kolkata"));
+        assertEquals(trigrams, index.trigramCount());
+
+        index.remove(2, "kolkata");
+        assertArrayEquals(new int[0], index.search("kolkata"));
+        assertEquals(0, index.trigramCount());
+    }
+
+    @Test
+    void reAddingAfterATextChangeMovesTheDocument() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(7, "durgapur");
+        index.add(7, "durgapur");
+
+        index.remove(7, "durgapur");
+        index.add(7, "asansol");
+
+        assertArrayEquals(new int[0], index.search("durgapur"));
+        assertArrayEquals(new int[] {7}, index.search("asansol"));
+    }
+
+    @Test
+    void postingListsStaySortedAcrossGrowth() {
+        TrigramIndex index = new TrigramIndex();
+        for (int id = 999; id >= 0; id--) {
+            index.add(id, id % 2 == 0 ? "kolkata" : "siliguri");
+        }
+
+        int[] kolkata = index.search("kolkata");
+        assertEquals(500, kolkata.length);
+        for (int i = 0; i < kolkata.length; i++) {
+            assertEquals(i * 2, kolkata[i]);
+        }
+
+        index.clear();
+        assertEquals(0, index.trigramCount());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ridesharing.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GcraRateLimiterTests {
+
+    @Test
+    void allowsTheBurstThenRejectsWithARetryHint() {
+        GcraRateLimiter limiter = new GcraRateLimiter("test", 5, Duration.ofHours(1), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("+910000000001"));
+        }
+        long wait = limiter.tryAcquire("+910000000001");
+        // One token comes back every 12 minutes
+        assertTrue(wait > Duration.ofMinutes(11).toMillis() && wait <= Duration.ofMinutes(12).toMillis(), "wait " + wait);
+
+        assertEquals(0, limiter.tryAcquire("+910000000002"));
+    }
+
+    @Test
+    void refillsOverThePeriod() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter("test", 2, Duration.ofMillis(100), 100);
+
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+
+        Thread.sleep(120);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(1, limiter.size());
+        Thread.sleep(120);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void evictsTheOldestKeysWhenFull() {
+        GcraRateLimiter limiter = new GcraRateLimiter("test", 1, Duration.ofMinutes(1), 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("k" + i));
+        }
+
+        // A new caller is admitted; the key nearest to a full bucket makes way for it
+        assertEquals(0, limiter.tryAcquire("new"));
+        assertEquals(10, limiter.size());
+        assertTrue(limiter.tryAcquire("k9") > 0);
+        assertTrue(limiter.tryAcquire("new") > 0);
+        assertEquals(0, limiter.tryAcquire("k0"));
+    }
+
+    @Test
+    void evictionRacingAcquiresNeverGrantsAnExtraBurst() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter("test", 10, Duration.ofHours(1), 100);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            boolean evict = i % 4 == 0;
+            pool.submit(() -> {
+                if (evict) {
+                    limiter.evictIdle();
+                } else if (limiter.tryAcquire("shared") == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(10, admitted.get());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter("test", 10, Duration.ofHours(1), 100);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> {
+                if (limiter.tryAcquire("shared") == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(10, admitted.get());
+    }
+}
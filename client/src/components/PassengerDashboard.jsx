@@ -2,15 +2,16 @@ import { useState, useEffect } from 'react'
 import { Search, MapPin, Calendar, Clock, Users, IndianRupee, Star, Filter, X, RefreshCw } from 'lucide-react'
 import apiService from '../services/api'
 
+const RIDES_PAGE_SIZE = 10
+const EMPTY_FILTERS = { from: '', to: '', date: '', maxPrice: '' }
+
 const PassengerDashboard = ({ user }) => {
   const [activeTab, setActiveTab] = useState('search')
-  const [searchFilters, setSearchFilters] = useState({
-    from: '',
-    to: '',
-    date: '',
-    maxPrice: ''
-  })
+  const [searchFilters, setSearchFilters] = useState(EMPTY_FILTERS)
+  const [activeFilters, setActiveFilters] = useState(EMPTY_FILTERS)
   const [availableRides, setAvailableRides] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [bookings, setBookings] = useState([]) // Active bookings
   const [rideHistory, setRideHistory] = useState([]) // Ride history
   const [loading, setLoading] = useState(false)
@@ -57,50 +58,43 @@ const PassengerDashboard = ({ user }) => {
     }
   }
 
-  // Update the loadAllRides function
+  // Ride lists come from the cursor-paged search, one validated page at a time
+  const fetchRidesPage = async (filters, cursor) => {
+    const response = await apiService.searchRidesPage({
+      source: filters.from,
+      destination: filters.to,
+      date: filters.date,
+      maxPrice: filters.maxPrice
+    }, cursor, RIDES_PAGE_SIZE)
+    console.log('Search page response:', response)
+
+    if (!response || response.status !== 'SUCCESS' || !response.data) {
+      console.log('Unexpected search response format:', response)
+      return { rides: [], nextCursor: null }
+    }
+
+    // Filter to show only future rides
+    const currentDateTime = new Date()
+    const rides = (response.data.content || []).filter(ride => {
+      const rideDateTime = new Date(ride.departureDate)
+      return rideDateTime > currentDateTime && ride.status === 'ACTIVE'
+    })
+    return { rides, nextCursor: response.data.hasNext ? response.data.nextCursor : null }
+  }
+
+  const showFirstPage = async (filters) => {
+    const page = await fetchRidesPage(filters, null)
+    setActiveFilters(filters)
+    setAvailableRides(page.rides)
+    setNextCursor(page.nextCursor)
+  }
+
   const loadAllRides = async () => {
     try {
       setLoading(true)
       setError('')
-      
-      const response = await apiService.searchRides({
-        source: '',
-        destination: '',
-        date: '',
-        maxPrice: ''
-      })
-      
-      console.log('API Response:', response)
-      
-      // Handle the correct response format based on the Postman response
-      let ridesArray = []
-      
-      if (response && response.status === 'SUCCESS' && response.data && response.data.content) {
-        // Backend returns: { status: "SUCCESS", data: { content: [...] } }
-        ridesArray = response.data.content
-      } else if (response && Array.isArray(response)) {
-        // In case response is directly an array
-        ridesArray = response
-      } else if (response && response.data && Array.isArray(response.data)) {
-        // In case response is { data: [...] }
-        ridesArray = response.data
-      } else {
-        console.log('Unexpected response format:', response)
-        ridesArray = []
-      }
-      
-      console.log('Extracted rides array:', ridesArray)
-      
-      // Filter to show only future rides
-      const currentDateTime = new Date()
-      const futureRides = ridesArray.filter(ride => {
-        const rideDateTime = new Date(ride.departureDate) // departureDate is already in ISO format
-        return rideDateTime > currentDateTime && ride.status === 'ACTIVE'
-      })
-      
-      setAvailableRides(futureRides)
-      console.log('Future rides loaded:', futureRides)
-      
+      await showFirstPage(EMPTY_FILTERS)
+      setSearchPerformed(false)
     } catch (error) {
       console.error('Error loading rides:', error)
       setError('Failed to load available rides')
@@ -109,40 +103,13 @@ const PassengerDashboard = ({ user }) => {
     }
   }
 
-  // Update the handleSearch function with the same logic
   const handleSearch = async (e) => {
     e.preventDefault()
     try {
       setLoading(true)
       setError('')
-      
-      const response = await apiService.searchRides(searchFilters)
-      console.log('Search Response:', response)
-      
-      // Handle the correct response format
-      let ridesArray = []
-      
-      if (response && response.status === 'SUCCESS' && response.data && response.data.content) {
-        ridesArray = response.data.content
-      } else if (response && Array.isArray(response)) {
-        ridesArray = response
-      } else if (response && response.data && Array.isArray(response.data)) {
-        ridesArray = response.data
-      } else {
-        console.log('Unexpected search response format:', response)
-        ridesArray = []
-      }
-      
-      // Filter to show only future rides
-      const currentDateTime = new Date()
-      const futureRides = ridesArray.filter(ride => {
-        const rideDateTime = new Date(ride.departureDate)
-        return rideDateTime > currentDateTime && ride.status === 'ACTIVE'
-      })
-      
-      setAvailableRides(futureRides)
+      await showFirstPage(searchFilters)
       setSearchPerformed(true)
-      
     } catch (error) {
       console.error('Error searching rides:', error)
       setError('Failed to search rides')
@@ -151,6 +118,25 @@ const PassengerDashboard = ({ user }) => {
     }
   }
 
+  // Appends the next page of the current listing (all rides or the last search)
+  const loadMoreRides = async () => {
+    if (!nextCursor) {
+      return
+    }
+    try {
+      setLoadingMore(true)
+      setError('')
+      const page = await fetchRidesPage(activeFilters, nextCursor)
+      setAvailableRides(prev => [...prev, ...page.rides])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error('Error loading more rides:', error)
+      setError('Failed to load more rides')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   // Update the handleBookRide function to collect pickup point
   const handleBookRide = async (rideId, seatsToBook = 1) => {
     try {
@@ -590,6 +576,18 @@ const PassengerDashboard = ({ user }) => {
                     </div>
                   )}
 
+                  {!loading && nextCursor && (
+                    <div className="text-center">
+                      <button
+                        onClick={loadMoreRides}
+                        disabled={loadingMore}
+                        className="px-4 py-2 text-sm text-gray-700 border border-gray-300 rounded-lg hover:bg-gray-50 disabled:opacity-50"
+                      >
+                        {loadingMore ? 'Loading...' : 'Load more rides'}
+                      </button>
+                    </div>
+                  )}
+
                   {!loading && searchPerformed && availableRides.length === 0 && (
                     <div className="text-center py-8 text-gray-500">
                       No rides found for your search criteria. Try adjusting your filters.
@@ -244,6 +244,24 @@ class ApiService {
     })
   }
 
+  // Cursor-paged search for infinite scroll: pass back the nextCursor of the previous slice
+  async searchRidesPage(searchParams, cursor = null, size = 10) {
+    const payload = {
+      source: searchParams.source || '',
+      destination: searchParams.destination || '',
+      departureDate: searchParams.date ? `${searchParams.date}T00:00:00` : '',
+      maxPrice: searchParams.maxPrice ? parseFloat(searchParams.maxPrice) : null,
+      cursorMode: true,
+      cursor,
+      size
+    }
+
+    return this.apiCall('/rides/search', {
+      method: 'POST',
+      body: JSON.stringify(payload)
+    })
+  }
+
   async getAllAvailableRides() {
     // Get all available rides without filters
     return this.apiCall('/rides/search', {